@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.4.3"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "ba"
@@ -9,7 +10,7 @@ version = "0.0.1-SNAPSHOT"
 
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		languageVersion = JavaLanguageVersion.of(21)
 	}
 }
 
@@ -22,19 +23,74 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.springframework.boot:spring-boot-starter-cache")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.flywaydb:flyway-core")
 
 	compileOnly("org.projectlombok:lombok:1.18.36")
 	annotationProcessor("org.projectlombok:lombok:1.18.36")
 
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("org.flywaydb:flyway-database-postgresql")
 
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testImplementation("org.springframework.boot:spring-boot-testcontainers")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:postgresql")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
 	testCompileOnly("org.projectlombok:lombok:1.18.36")
 	testAnnotationProcessor("org.projectlombok:lombok:1.18.36")
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark", "load")
+	}
+}
+
+// Database backed throughput benchmarks need Docker and take a while, so they only run on demand.
+val benchmarkTest by tasks.registering(Test::class) {
+	description = "Runs the database backed throughput benchmarks."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+	shouldRunAfter(tasks.test)
+}
+
+// Create, cancel and list scenarios against the HTTP API, results are appended to build/reports/load-test/results.csv.
+// -PloadTestProfile=prod runs them with application-prod.properties.
+val loadTest by tasks.registering(Test::class) {
+	description = "Runs the HTTP load test scenarios."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("load")
+	}
+	providers.gradleProperty("loadTestProfile").orNull?.let { systemProperty("spring.profiles.active", it) }
+	testLogging {
+		showStandardStreams = true
+	}
+	outputs.upToDateWhen { false }
+	shouldRunAfter(tasks.test)
+}
+
+// Microbenchmarks in src/jmh, run with ./gradlew jmh.
+// Results are written to build/results/jmh, the gc profiler adds allocation rates per operation.
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	profilers = listOf("gc")
+	resultFormat = "JSON"
+	humanOutputFile = layout.buildDirectory.file("results/jmh/human.txt")
 }
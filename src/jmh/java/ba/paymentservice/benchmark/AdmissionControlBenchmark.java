@@ -0,0 +1,77 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.ratelimit.AdaptiveConcurrencyLimiter;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of admission control: the client IP bucket and the concurrency permit taken by
+// AdmissionControlFilter plus the user bucket of payment creation. The limits are set high enough to
+// admit every request, rejectedRequest measures a client over its limit. The threaded variants show
+// the contention on a single hot key against many clients.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdmissionControlBenchmark {
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private String[] clientIps;
+    private TokenBucketRateLimiter clientRateLimiter;
+    private TokenBucketRateLimiter userRateLimiter;
+    private TokenBucketRateLimiter exhaustedRateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Setup
+    public void setUp() {
+        clientIps = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientIps[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+        clientRateLimiter = new TokenBucketRateLimiter(1_000_000_000, 1e9, 100_000);
+        userRateLimiter = new TokenBucketRateLimiter(1_000_000_000, 1e9, 100_000);
+        exhaustedRateLimiter = new TokenBucketRateLimiter(1, 1e-3, 100_000);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(1_000, 1_000, 1_000, 2.0, Duration.ofSeconds(1));
+        for (var clientIp : clientIps) {
+            exhaustedRateLimiter.tryAcquire(clientIp);
+        }
+    }
+
+    @Benchmark
+    public boolean admittedRequest() {
+        int client = ThreadLocalRandom.current().nextInt(clients);
+        boolean admitted = clientRateLimiter.tryAcquire(clientIps[client]) == 0
+                && concurrencyLimiter.tryAcquire();
+        if (admitted) {
+            admitted = userRateLimiter.tryAcquire((long) client) == 0;
+            concurrencyLimiter.release();
+        }
+        return admitted;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean admittedRequest4Threads() {
+        return admittedRequest();
+    }
+
+    @Benchmark
+    public long rejectedRequest() {
+        return exhaustedRateLimiter.tryAcquire(clientIps[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public void databaseLatencySample() {
+        concurrencyLimiter.onDatabaseLatency(2_000_000);
+    }
+
+    // Baseline of the random client pick, to subtract from the numbers above.
+    @Benchmark
+    public String pickClient() {
+        return clientIps[ThreadLocalRandom.current().nextInt(clients)];
+    }
+}
@@ -0,0 +1,40 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.validator.IbanValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Hand-written IBAN check and normalization against the former @Pattern regex and replace/toUpperCase.
+// The regex only checked the format, the hand-written check also verifies length and checksum.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IbanValidationBenchmark {
+
+    private static final Pattern IBAN_PATTERN = Pattern.compile("^[A-Z]{2}\\d{2}[A-Z0-9]{11,30}$");
+
+    @Param({"DE75512108001245126199", "DE75 5121 0800 1245 1261 99"})
+    private String iban;
+
+    @Benchmark
+    public boolean validateRegex() {
+        return IBAN_PATTERN.matcher(iban).matches();
+    }
+
+    @Benchmark
+    public boolean validateChecksum() {
+        return IbanValidator.isValidIban(iban);
+    }
+
+    @Benchmark
+    public String normalizeReplaceToUpperCase() {
+        return iban.replace(" ", "").toUpperCase();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return IbanValidator.normalize(iban);
+    }
+}
@@ -0,0 +1,64 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Copy of the former per-type validator beans behind an EnumMap, kept as the baseline of PaymentValidationBenchmark.
+final class LegacyEnumMapPaymentValidation {
+
+    private final Map<PaymentType, Consumer<PaymentCreationRequest>> validatorMap = new EnumMap<>(PaymentType.class);
+
+    LegacyEnumMapPaymentValidation() {
+        validatorMap.put(PaymentType.TYPE1, new Type1PaymentValidator());
+        validatorMap.put(PaymentType.TYPE2, new Type2PaymentValidator());
+        validatorMap.put(PaymentType.TYPE3, new Type3PaymentValidator());
+    }
+
+    void validate(PaymentCreationRequest request) {
+        var validator = validatorMap.get(request.paymentType());
+        if (validator == null) {
+            throw new BadRequestException("Invalid payment type");
+        }
+        validator.accept(request);
+    }
+
+    private static final class Type1PaymentValidator implements Consumer<PaymentCreationRequest> {
+        @Override
+        public void accept(PaymentCreationRequest request) {
+            if (request.currency() != Currency.EUR) {
+                throw new BadRequestException("Currency must be EUR for payment TYPE1");
+            }
+            if (!StringUtils.hasText(request.details())) {
+                throw new BadRequestException("Details are required for payment type TYPE1");
+            }
+        }
+    }
+
+    private static final class Type2PaymentValidator implements Consumer<PaymentCreationRequest> {
+        @Override
+        public void accept(PaymentCreationRequest request) {
+            if (request.currency() != Currency.USD) {
+                throw new BadRequestException("Currency must be USD for payment TYPE2");
+            }
+        }
+    }
+
+    private static final class Type3PaymentValidator implements Consumer<PaymentCreationRequest> {
+        @Override
+        public void accept(PaymentCreationRequest request) {
+            if (!StringUtils.hasText(request.creditorIban())) {
+                throw new BadRequestException("Creditor IBAN is required for TYPE3 payment");
+            }
+            if (!StringUtils.hasText(request.creditorBankBic())) {
+                throw new BadRequestException("Creditor bank BIC required for TYPE3 payment");
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.model.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+final class PaymentFixtures {
+
+    private PaymentFixtures() {
+    }
+
+    static PaymentCreationRequest request(PaymentType type) {
+        return new PaymentCreationRequest(
+                type,
+                BigDecimal.valueOf(150.00),
+                type == PaymentType.TYPE2 ? Currency.USD : Currency.EUR,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                "Invoice #123",
+                "DEUTDEFF500",
+                1L
+        );
+    }
+
+    static Payment payment(PaymentType type) {
+        return Payment.builder()
+                .id(1L)
+                .paymentType(type)
+                .amount(BigDecimal.valueOf(150.00))
+                .currency(type == PaymentType.TYPE2 ? Currency.USD : Currency.EUR)
+                .debtorIban("DE89370400440532013000")
+                .creditorIban("DE75512108001245126199")
+                .details("Invoice #123")
+                .creditorBankBic("DEUTDEFF500")
+                .createdAt(LocalDateTime.of(2025, 3, 14, 13, 45))
+                .canceled(false)
+                .cancellationFee(BigDecimal.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bean Validation of the creation request as done by @Valid and createAndSavePayment,
+// includes the @ValidIban checksum and @ValidBic checks.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentRequestBeanValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private PaymentCreationRequest request;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = PaymentFixtures.request(PaymentType.TYPE1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PaymentCreationRequest>> validateRequest() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PaymentCreationRequest>> validateCreditorIban() {
+        return validator.validateProperty(request, "creditorIban");
+    }
+}
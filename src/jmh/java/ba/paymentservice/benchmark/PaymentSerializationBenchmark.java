@@ -0,0 +1,79 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.dto.UserResponse;
+import ba.paymentservice.json.PaymentResponseSerializer;
+import ba.paymentservice.json.UserResponseSerializer;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Serialization of response bodies with the same settings as the Spring Boot ObjectMapper:
+// the JPA entities the API used to return against the response records with their hand-written serializers.
+// The response sizes are compared in ResponseSizeTest.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentSerializationBenchmark {
+
+    private static final int USER_PAYMENTS = 50_000;
+
+    private ObjectMapper mapper;
+    private Payment payment;
+    private PaymentResponse paymentResponse;
+    private User user;
+    private UserResponse userResponse;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .addModule(new SimpleModule()
+                        .addSerializer(PaymentResponse.class, new PaymentResponseSerializer())
+                        .addSerializer(UserResponse.class, new UserResponseSerializer()))
+                .build();
+
+        payment = PaymentFixtures.payment(PaymentType.TYPE1);
+        paymentResponse = PaymentResponse.from(payment);
+
+        user = new User();
+        user.setUsername("john_doe");
+        var payments = new ArrayList<Payment>(USER_PAYMENTS);
+        for (int i = 0; i < USER_PAYMENTS; i++) {
+            payments.add(PaymentFixtures.payment(PaymentType.TYPE1));
+        }
+        user.setPayments(payments);
+        userResponse = UserResponse.from(user);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentEntity() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializeUserEntity() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(userResponse);
+    }
+}
@@ -0,0 +1,39 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.service.PaymentValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Compiled rule table of PaymentValidationService against the former EnumMap dispatch to per-type validators.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentValidationBenchmark {
+
+    @Param({"TYPE1", "TYPE2", "TYPE3"})
+    private PaymentType paymentType;
+
+    private PaymentValidationService paymentValidationService;
+    private LegacyEnumMapPaymentValidation legacyValidation;
+    private PaymentCreationRequest request;
+
+    @Setup
+    public void setUp() {
+        paymentValidationService = new PaymentValidationService();
+        legacyValidation = new LegacyEnumMapPaymentValidation();
+        request = PaymentFixtures.request(paymentType);
+    }
+
+    @Benchmark
+    public void validate() {
+        paymentValidationService.validate(request);
+    }
+
+    @Benchmark
+    public void validateLegacyEnumMap() {
+        legacyValidation.validate(request);
+    }
+}
@@ -0,0 +1,17 @@
+package ba.paymentservice.archive;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+// A month moved to the archive, with the range of its payment ids. minId and maxId are null for an empty month.
+public record ArchivedMonth(YearMonth month, long paymentCount, Long minId, Long maxId) {
+
+    public boolean mayContain(long paymentId) {
+        return minId != null && minId <= paymentId && paymentId <= maxId;
+    }
+
+    // Whether payments created in [from, to) can be in this month.
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return month.atDay(1).atStartOfDay().isBefore(to) && month.plusMonths(1).atDay(1).atStartOfDay().isAfter(from);
+    }
+}
@@ -0,0 +1,180 @@
+package ba.paymentservice.archive;
+
+import ba.paymentservice.dto.PaymentResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archived payments of closed months, one gzip compressed file of JSON lines per month
+ * ({@code payments-2025-01.ndjson.gz}). The files can be read back through {@link #readPayments}
+ * or with any tool that reads compressed JSON lines. Which months are archived is recorded in the database,
+ * see ArchivedPaymentService.
+ */
+@Component
+public class PaymentArchive {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final ObjectWriter objectWriter;
+    private final ObjectReader objectReader;
+    private final ObjectMapper objectMapper;
+
+    // Archiving drops the archived partitions, so it refuses a directory that may not outlive the process
+    // or be seen by the other instances, such as the default relative one in the working directory.
+    public PaymentArchive(@Value("${paymentservice.archive.dir}") String directory,
+                          @Value("${paymentservice.archive.enabled}") boolean enabled,
+                          ObjectMapper objectMapper) {
+        if (enabled && !Path.of(directory).isAbsolute()) {
+            throw new IllegalArgumentException("paymentservice.archive.dir (PAYMENT_ARCHIVE_DIR) must be an absolute path "
+                    + "on storage shared by all instances when archiving is enabled, was '" + directory + "'");
+        }
+        this.directory = Path.of(directory);
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writerFor(PaymentArchiveRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.objectReader = objectMapper.readerFor(PaymentArchiveRecord.class);
+    }
+
+    public boolean contains(YearMonth month) {
+        return Files.exists(file(month));
+    }
+
+    // Payments of the month created in [from, to), optionally of one user, in the order they were archived.
+    public void readPayments(YearMonth month, LocalDateTime from, LocalDateTime to, Long userId,
+                             Consumer<PaymentResponse> consumer) {
+        read(month, payment -> {
+            if ((userId == null || userId.equals(payment.userId()))
+                    && !payment.createdAt().isBefore(from) && payment.createdAt().isBefore(to)) {
+                consumer.accept(payment.toResponse());
+            }
+        });
+    }
+
+    // Reads the month until the payment is found.
+    public Optional<PaymentArchiveRecord> findPayment(YearMonth month, long paymentId) {
+        var file = file(month);
+        try (var in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+             var payments = objectReader.<PaymentArchiveRecord>readValues(in)) {
+            while (payments.hasNextValue()) {
+                var payment = payments.nextValue();
+                if (payment.id() == paymentId) {
+                    return Optional.of(payment);
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read payment archive " + file, e);
+        }
+    }
+
+    public void read(YearMonth month, Consumer<PaymentArchiveRecord> consumer) {
+        var file = file(month);
+        try (var in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+             var payments = objectReader.<PaymentArchiveRecord>readValues(in)) {
+            payments.forEachRemaining(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read payment archive " + file, e);
+        }
+    }
+
+    // The file only appears under its final name once commit() has synced it to disk.
+    public Writer writer(YearMonth month) throws IOException {
+        Files.createDirectories(directory);
+        return new Writer(file(month));
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve("payments-" + MONTH.format(month) + ".ndjson.gz");
+    }
+
+    public class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temporary;
+        private final FileOutputStream fileOut;
+        private final GZIPOutputStream gzipOut;
+        private final JsonGenerator generator;
+        private long written;
+        private Long minId;
+        private Long maxId;
+        private boolean committed;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            this.fileOut = new FileOutputStream(temporary.toFile());
+            this.gzipOut = new GZIPOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE), BUFFER_SIZE);
+            this.generator = objectMapper.getFactory().createGenerator(gzipOut, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        public void write(PaymentArchiveRecord payment) {
+            try {
+                objectWriter.writeValue(generator, payment);
+                generator.writeRaw('\n');
+                written++;
+                minId = minId == null ? payment.id() : Math.min(minId, payment.id());
+                maxId = maxId == null ? payment.id() : Math.max(maxId, payment.id());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public long written() {
+            return written;
+        }
+
+        // Smallest and largest written payment id, null while nothing was written.
+        public Long minId() {
+            return minId;
+        }
+
+        public Long maxId() {
+            return maxId;
+        }
+
+        public void commit() throws IOException {
+            generator.close();
+            gzipOut.finish();
+            gzipOut.flush();
+            fileOut.getChannel().force(true);
+            gzipOut.close();
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                gzipOut.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
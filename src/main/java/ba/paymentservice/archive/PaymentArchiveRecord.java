@@ -0,0 +1,30 @@
+package ba.paymentservice.archive;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One archived payment row, all columns of the payment table.
+public record PaymentArchiveRecord(
+        Long id,
+        Long userId,
+        PaymentType paymentType,
+        BigDecimal amount,
+        Currency currency,
+        String debtorIban,
+        String creditorIban,
+        String details,
+        String creditorBankBic,
+        LocalDateTime createdAt,
+        boolean canceled,
+        BigDecimal cancellationFee
+) {
+
+    public PaymentResponse toResponse() {
+        return new PaymentResponse(id, paymentType, amount, currency, debtorIban, creditorIban, details,
+                creditorBankBic, createdAt, canceled, cancellationFee);
+    }
+}
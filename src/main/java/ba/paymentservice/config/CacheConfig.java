@@ -0,0 +1,13 @@
+package ba.paymentservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are configured through spring.cache.* in application.properties,
+// spring.cache.type=none turns caching off.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PAYMENT_CANCELLATION_CACHE = "paymentCancellation";
+}
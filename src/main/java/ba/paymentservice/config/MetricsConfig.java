@@ -0,0 +1,18 @@
+package ba.paymentservice.config;
+
+import ba.paymentservice.metrics.LatencyMetrics;
+import ba.paymentservice.metrics.TimedJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Replaces Spring Boot's Jackson converter so the serialization of payment creation responses shows up in the phase timers.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                 LatencyMetrics latencyMetrics) {
+        return new TimedJackson2HttpMessageConverter(objectMapper, latencyMetrics);
+    }
+}
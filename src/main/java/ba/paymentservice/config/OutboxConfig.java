@@ -0,0 +1,33 @@
+package ba.paymentservice.config;
+
+import ba.paymentservice.outbox.FileOutboxEventSink;
+import ba.paymentservice.outbox.InMemoryOutboxEventSink;
+import ba.paymentservice.outbox.OutboxEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+// The sink is chosen with paymentservice.outbox.sink. Other destinations (e.g. a message broker)
+// set it to any other value and declare their own OutboxEventSink bean.
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "paymentservice.outbox.sink", havingValue = "file", matchIfMissing = true)
+    public OutboxEventSink fileOutboxEventSink(ObjectMapper objectMapper,
+                                               @Value("${paymentservice.outbox.file}") String file) {
+        return new FileOutboxEventSink(objectMapper.getFactory(), Path.of(file));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "paymentservice.outbox.sink", havingValue = "memory")
+    public OutboxEventSink inMemoryOutboxEventSink() {
+        return new InMemoryOutboxEventSink();
+    }
+}
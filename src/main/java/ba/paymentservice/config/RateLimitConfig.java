@@ -0,0 +1,98 @@
+package ba.paymentservice.config;
+
+import ba.paymentservice.datasource.StatementLatencyDataSource;
+import ba.paymentservice.filter.AdmissionControlFilter;
+import ba.paymentservice.ratelimit.AdaptiveConcurrencyLimiter;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Rate limits per user and client IP (paymentservice.rate-limit.*) and the adaptive concurrency limit
+// of the API (paymentservice.admission.*). Each can be turned off with its enabled property.
+@Configuration
+public class RateLimitConfig {
+
+    public static final String USER_RATE_LIMITER = "userRateLimiter";
+    public static final String CLIENT_RATE_LIMITER = "clientRateLimiter";
+
+    @Bean(USER_RATE_LIMITER)
+    public TokenBucketRateLimiter userRateLimiter(@Value("${paymentservice.rate-limit.enabled}") boolean enabled,
+                                                  @Value("${paymentservice.rate-limit.user-capacity}") int capacity,
+                                                  @Value("${paymentservice.rate-limit.user-refill-per-second}") double refillPerSecond,
+                                                  @Value("${paymentservice.rate-limit.max-keys}") long maxKeys) {
+        return enabled ? new TokenBucketRateLimiter(capacity, refillPerSecond, maxKeys) : TokenBucketRateLimiter.unlimited();
+    }
+
+    @Bean(CLIENT_RATE_LIMITER)
+    public TokenBucketRateLimiter clientRateLimiter(@Value("${paymentservice.rate-limit.enabled}") boolean enabled,
+                                                    @Value("${paymentservice.rate-limit.client-capacity}") int capacity,
+                                                    @Value("${paymentservice.rate-limit.client-refill-per-second}") double refillPerSecond,
+                                                    @Value("${paymentservice.rate-limit.max-keys}") long maxKeys) {
+        return enabled ? new TokenBucketRateLimiter(capacity, refillPerSecond, maxKeys) : TokenBucketRateLimiter.unlimited();
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter concurrencyLimiter(@Value("${paymentservice.admission.enabled}") boolean enabled,
+                                                         @Value("${paymentservice.admission.initial-limit}") int initialLimit,
+                                                         @Value("${paymentservice.admission.min-limit}") int minLimit,
+                                                         @Value("${paymentservice.admission.max-limit}") int maxLimit,
+                                                         @Value("${paymentservice.admission.latency-tolerance}") double tolerance,
+                                                         @Value("${paymentservice.admission.update-interval}") Duration updateInterval,
+                                                         MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return AdaptiveConcurrencyLimiter.unlimited();
+        }
+        var limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, updateInterval);
+        Gauge.builder("admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit of concurrent API requests")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("API requests currently admitted")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    // Times the statements of every endpoint on the data source used by JPA and JdbcTemplate, their latency drives
+    // the concurrency limit. Static, so that the limiter is only looked up when the first statement runs.
+    @Bean
+    public static BeanPostProcessor statementLatencyDataSourcePostProcessor(
+            @Value("${paymentservice.admission.enabled}") boolean enabled,
+            ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter) {
+        var limiter = SingletonSupplier.of(concurrencyLimiter::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new StatementLatencyDataSource(dataSource, nanos -> limiter.obtain().onDatabaseLatency(nanos));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Runs inside the access log filter, so rejected requests are logged too.
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Qualifier(CLIENT_RATE_LIMITER) TokenBucketRateLimiter clientRateLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            ObjectMapper objectMapper) {
+        var registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(clientRateLimiter, concurrencyLimiter, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
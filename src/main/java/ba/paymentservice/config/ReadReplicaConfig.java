@@ -0,0 +1,70 @@
+package ba.paymentservice.config;
+
+import ba.paymentservice.datasource.ReadReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when paymentservice.datasource.replica-urls is set, otherwise the auto-configured data source is used as is.
+// The primary pool is configured through spring.datasource.* like the auto-configured one,
+// the replicas use the same credentials and driver properties (spring.datasource.hikari.data-source-properties)
+// and are opened read-only.
+@Configuration
+@ConditionalOnExpression("!'${paymentservice.datasource.replica-urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${paymentservice.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${paymentservice.datasource.replica-pool-size}") int poolSize,
+            @Value("${paymentservice.datasource.replica-connection-timeout}") Duration connectionTimeout,
+            @Value("${paymentservice.datasource.replica-retry-after}") Duration retryAfter) {
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(replicaPool(i, replicaUrls.get(i).trim(), primaryDataSource, properties, poolSize, connectionTimeout));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, retryAfter);
+    }
+
+    static HikariDataSource replicaPool(int index, String url, HikariDataSource primaryDataSource,
+                                        DataSourceProperties properties, int poolSize, Duration connectionTimeout) {
+        var replica = new HikariDataSource();
+        replica.setPoolName("replica-" + index);
+        replica.setJdbcUrl(url);
+        replica.setUsername(properties.determineUsername());
+        replica.setPassword(properties.determinePassword());
+        // Driver settings such as reWriteBatchedInserts apply to the replicas as well.
+        replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+        replica.setMaximumPoolSize(poolSize);
+        replica.setConnectionTimeout(connectionTimeout.toMillis());
+        replica.setReadOnly(true);
+        // Pools connect lazily, an unreachable replica does not prevent startup.
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
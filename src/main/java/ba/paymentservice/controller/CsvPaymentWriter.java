@@ -0,0 +1,89 @@
+package ba.paymentservice.controller;
+
+import ba.paymentservice.dto.PaymentResponse;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+// Writes payments as RFC 4180 CSV with a header row, only the write buffer is held in memory.
+class CsvPaymentWriter implements Consumer<PaymentResponse>, Closeable {
+
+    static final String HEADER = "id,paymentType,amount,currency,debtorIban,creditorIban,details,"
+            + "creditorBankBic,createdAt,canceled,cancellationFee";
+
+    private final Writer writer;
+
+    CsvPaymentWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void accept(PaymentResponse payment) {
+        try {
+            writer.write(String.valueOf(payment.id()));
+            writer.write(',');
+            writeField(payment.paymentType() != null ? payment.paymentType().name() : null);
+            writer.write(',');
+            writeField(payment.amount() != null ? payment.amount().toPlainString() : null);
+            writer.write(',');
+            writeField(payment.currency() != null ? payment.currency().name() : null);
+            writer.write(',');
+            writeField(payment.debtorIban());
+            writer.write(',');
+            writeField(payment.creditorIban());
+            writer.write(',');
+            writeField(payment.details());
+            writer.write(',');
+            writeField(payment.creditorBankBic());
+            writer.write(',');
+            writeField(payment.createdAt() != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(payment.createdAt()) : null);
+            writer.write(',');
+            writer.write(Boolean.toString(payment.canceled()));
+            writer.write(',');
+            writeField(payment.cancellationFee() != null ? payment.cancellationFee().toPlainString() : null);
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Empty for null, quoted when the value contains a separator, quote or line break.
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
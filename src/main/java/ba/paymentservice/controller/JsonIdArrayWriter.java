@@ -0,0 +1,42 @@
+package ba.paymentservice.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongConsumer;
+
+// Writes IDs as a JSON array straight to the response, only the write buffer is held in memory.
+// The array is only closed by finish(), a stream that fails halfway leaves it open so the client
+// sees invalid JSON instead of a complete looking, truncated list.
+class JsonIdArrayWriter implements LongConsumer {
+
+    private final Writer writer;
+    private boolean first = true;
+
+    JsonIdArrayWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write('[');
+    }
+
+    @Override
+    public void accept(long id) {
+        try {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write(Long.toString(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        writer.write(']');
+        writer.flush();
+    }
+}
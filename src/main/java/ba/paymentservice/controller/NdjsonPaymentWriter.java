@@ -0,0 +1,45 @@
+package ba.paymentservice.controller;
+
+import ba.paymentservice.dto.PaymentResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes one JSON object per line. The generator buffers the output and only writes to the
+// response when its buffer is full, a slow client blocks the export instead of growing memory.
+class NdjsonPaymentWriter implements Consumer<PaymentResponse>, Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter objectWriter;
+
+    NdjsonPaymentWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.objectWriter = objectMapper.writerFor(PaymentResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void accept(PaymentResponse payment) {
+        try {
+            objectWriter.writeValue(generator, payment);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
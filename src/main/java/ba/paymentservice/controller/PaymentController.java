@@ -1,17 +1,38 @@
 package ba.paymentservice.controller;
 
+import ba.paymentservice.config.RateLimitConfig;
+import ba.paymentservice.dto.BulkCancellationRequest;
+import ba.paymentservice.dto.BulkCancellationResponse;
+import ba.paymentservice.dto.PaymentBatchResponse;
 import ba.paymentservice.dto.PaymentCancellationResponse;
 import ba.paymentservice.dto.PaymentCreationRequest;
-import ba.paymentservice.model.Payment;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentSummaryResponse;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.TooManyRequestsException;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import ba.paymentservice.service.BulkPaymentCancellationService;
+import ba.paymentservice.service.PaymentExportService;
+import ba.paymentservice.service.PaymentIdempotencyService;
 import ba.paymentservice.service.PaymentService;
+import ba.paymentservice.service.PaymentSummaryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @Validated
 @RestController
@@ -19,40 +40,169 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentIdempotencyService paymentIdempotencyService;
+    private final BulkPaymentCancellationService bulkPaymentCancellationService;
+    private final PaymentExportService paymentExportService;
+    private final PaymentSummaryService paymentSummaryService;
+    private final TokenBucketRateLimiter userRateLimiter;
+    private final ObjectMapper objectMapper;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             PaymentIdempotencyService paymentIdempotencyService,
+                             BulkPaymentCancellationService bulkPaymentCancellationService,
+                             PaymentExportService paymentExportService,
+                             PaymentSummaryService paymentSummaryService,
+                             @Qualifier(RateLimitConfig.USER_RATE_LIMITER) TokenBucketRateLimiter userRateLimiter,
+                             ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.paymentIdempotencyService = paymentIdempotencyService;
+        this.bulkPaymentCancellationService = bulkPaymentCancellationService;
+        this.paymentExportService = paymentExportService;
+        this.paymentSummaryService = paymentSummaryService;
+        this.userRateLimiter = userRateLimiter;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ResponseEntity<?> createPayment(@Valid @RequestBody PaymentCreationRequest request) {
+        acquireUserToken(request.userId());
         try {
             var payment = paymentService.createAndSavePayment(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+            return ResponseEntity.status(HttpStatus.CREATED).body(PaymentResponse.from(payment));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Retries with the same Idempotency-Key get the response of the first request. The key is looked up before
+    // the request is validated and rate limited, a new key's request is validated by the service.
+    @PostMapping(headers = "Idempotency-Key")
+    public ResponseEntity<?> createPaymentIdempotently(@RequestBody PaymentCreationRequest request,
+                                                       @RequestHeader("Idempotency-Key") String idempotencyKey) {
+        var storedResponse = paymentIdempotencyService.findStoredResponse(request, idempotencyKey);
+        if (storedResponse.isPresent()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(storedResponse.get());
+        }
+
+        if (request.userId() != null) {
+            acquireUserToken(request.userId());
+        }
+        try {
+            var response = paymentIdempotencyService.createAndSavePayment(request, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<PaymentBatchResponse> createPayments(@RequestBody List<PaymentCreationRequest> requests) {
+        // Items are validated one by one in the service so that a single bad row does not reject the whole batch.
+        // A batch counts as one request of each of its existing users, their tokens are taken all or none
+        // once the batch is validated.
+        var response = paymentService.createAndSavePayments(requests, this::acquireUserTokens);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/cancel")
+    public ResponseEntity<BulkCancellationResponse> cancelPayments(@RequestBody BulkCancellationRequest request) {
+        var response = bulkPaymentCancellationService.cancelPayments(request);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{paymentId}/cancel")
     public ResponseEntity<?> cancelPayment(@PathVariable Long paymentId) {
         try {
             var payment = paymentService.cancelPaymentById(paymentId);
-            return ResponseEntity.ok(payment);
+            return ResponseEntity.ok(PaymentResponse.from(payment));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<Long>> getNonCanceledPayments(@RequestParam(required = false) BigDecimal amount) {
+    public ResponseEntity<?> getNonCanceledPayments(@RequestParam(required = false) BigDecimal amount,
+                                                    @RequestParam(required = false) Long afterId,
+                                                    @RequestParam(required = false) Integer limit) {
+        // Keyset pagination is used as soon as a cursor or page size is given.
+        if (afterId != null || limit != null) {
+            return ResponseEntity.ok(paymentService.getNonCanceledPaymentIdPage(amount, afterId, limit));
+        }
+
         List<Long> paymentIds = paymentService.getNonCanceledPaymentIds(amount);
         return ResponseEntity.ok(paymentIds);
     }
 
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamNonCanceledPayments(@RequestParam(required = false) BigDecimal amount) {
+        StreamingResponseBody body = outputStream -> {
+            var writer = new JsonIdArrayWriter(outputStream);
+            paymentService.streamNonCanceledPaymentIds(amount, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // Rows are written while they are read from the database cursor, see PaymentExportService.
+        var filter = paymentExportService.exportFilter(userId, from, to);
+        StreamingResponseBody body;
+        MediaType contentType;
+        switch (format.toLowerCase()) {
+            case "ndjson" -> {
+                contentType = MediaType.APPLICATION_NDJSON;
+                body = outputStream -> {
+                    try (var writer = new NdjsonPaymentWriter(objectMapper, outputStream)) {
+                        paymentExportService.exportPayments(filter, writer);
+                    }
+                };
+            }
+            case "csv" -> {
+                contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+                body = outputStream -> {
+                    try (var writer = new CsvPaymentWriter(outputStream)) {
+                        paymentExportService.exportPayments(filter, writer);
+                    }
+                };
+            }
+            default -> throw new BadRequestException("format must be ndjson or csv");
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<PaymentSummaryResponse> getPaymentSummary(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(paymentSummaryService.getSummary(userId, from, to));
+    }
+
     @GetMapping("/{paymentId}")
     public ResponseEntity<PaymentCancellationResponse> getPaymentById(@PathVariable Long paymentId) {
         var response = paymentService.getPaymentCancellationResponse(paymentId);
         return ResponseEntity.ok(response);
     }
+
+    private void acquireUserToken(Long userId) {
+        long waitNanos = userRateLimiter.tryAcquire(userId);
+        if (waitNanos > 0) {
+            throw TooManyRequestsException.retryAfterNanos("Too many payments created for user " + userId, waitNanos);
+        }
+    }
+
+    private void acquireUserTokens(Set<Long> userIds) {
+        long waitNanos = userRateLimiter.tryAcquireAll(userIds);
+        if (waitNanos > 0) {
+            throw TooManyRequestsException.retryAfterNanos("Too many payments created for a user of the batch", waitNanos);
+        }
+    }
 }
@@ -1,14 +1,16 @@
 package ba.paymentservice.controller;
 
 import ba.paymentservice.dto.UserCreationRequest;
-import ba.paymentservice.model.User;
+import ba.paymentservice.dto.UserResponse;
 import ba.paymentservice.service.PaymentService;
 import ba.paymentservice.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -26,17 +28,34 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<User> createUser(@Valid @RequestBody UserCreationRequest request) {
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserCreationRequest request) {
         var createdUser = userService.createUser(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(createdUser));
     }
 
     @GetMapping("/{userId}/payments")
-    public ResponseEntity<List<Long>> getPaymentIdsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getPaymentIdsByUser(@PathVariable Long userId,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 @RequestParam(required = false) Integer limit) {
+        // Keyset pagination is used as soon as a cursor or page size is given.
+        if (afterId != null || limit != null) {
+            return ResponseEntity.ok(paymentService.getPaymentIdPageByUser(userId, afterId, limit));
+        }
+
         List<Long> paymentIds = paymentService.getPaymentIdsByUser(userId);
         return ResponseEntity.ok(paymentIds);
     }
 
+    @GetMapping("/{userId}/payments/stream")
+    public ResponseEntity<StreamingResponseBody> streamPaymentIdsByUser(@PathVariable Long userId) {
+        StreamingResponseBody body = outputStream -> {
+            var writer = new JsonIdArrayWriter(outputStream);
+            paymentService.streamPaymentIdsByUser(userId, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long userId) {
         userService.deleteUser(userId);
@@ -0,0 +1,131 @@
+package ba.paymentservice.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Routes connections of read-only transactions to the replicas (round robin) and everything else to the primary.
+ * A replica that fails to hand out a connection is skipped for {@code retryAfter}, its reads go to the primary meanwhile.
+ * Has to be wrapped in a LazyConnectionDataSourceProxy, otherwise the connection is fetched before the
+ * transaction is marked read-only.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    // Set by ReadYourWrites for read-only transactions that must see the latest writes.
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryAfterNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // System.nanoTime() until which a replica is skipped, 0 when it is available.
+    private final AtomicLongArray unavailableUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.unavailableUntil = new AtomicLongArray(replicas.size());
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (readFromReplica()) {
+            var connection = replicaConnection(username, password);
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return connect(primary, username, password);
+    }
+
+    private boolean readFromReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !isPinnedToPrimary();
+    }
+
+    // Returns null when no replica is available, the caller falls back to the primary.
+    private Connection replicaConnection(String username, String password) {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            long now = System.nanoTime();
+            long until = unavailableUntil.get(index);
+            if (until != 0 && now - until < 0) {
+                continue;
+            }
+            try {
+                return connect(replicas.get(index), username, password);
+            } catch (SQLException e) {
+                unavailableUntil.set(index, now + retryAfterNanos);
+                logger.warn("Read replica {} is unavailable, reading from the primary for {} ms",
+                        index, retryAfterNanos / 1_000_000, e);
+            }
+        }
+        return null;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    // Lets pool metadata and metrics unwrap the primary pool.
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || primary.isWrapperFor(type);
+    }
+
+    // The primary is a bean of its own, only the replica pools are owned by this data source.
+    @Override
+    public void close() {
+        for (var replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close read replica pool", e);
+                }
+            }
+        }
+    }
+}
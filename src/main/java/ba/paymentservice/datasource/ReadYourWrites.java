@@ -0,0 +1,93 @@
+package ba.paymentservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-your-writes stickiness for read replicas. Payments and users written by this instance are remembered for
+ * paymentservice.datasource.read-your-writes-window; read-only transactions about them are pinned to the primary
+ * in that time, so they do not see a replica that has not caught up yet (or cache a stale cancellation).
+ * Does nothing when no replicas are configured.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> writtenPayments;
+    private final Cache<Long, Boolean> writtenUsers;
+
+    public ReadYourWrites(@Value("${paymentservice.datasource.replica-urls:}") String replicaUrls,
+                          @Value("${paymentservice.datasource.read-your-writes-window}") Duration window,
+                          @Value("${paymentservice.datasource.read-your-writes-max-size}") long maxSize) {
+        this.enabled = StringUtils.hasText(replicaUrls) && !window.isZero();
+        this.writtenPayments = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+        this.writtenUsers = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+    }
+
+    public void paymentWritten(Long paymentId) {
+        written(writtenPayments, List.of(paymentId));
+    }
+
+    public void paymentsWritten(Collection<Long> paymentIds) {
+        written(writtenPayments, paymentIds);
+    }
+
+    public void userWritten(Long userId) {
+        written(writtenUsers, List.of(userId));
+    }
+
+    public void usersWritten(Collection<Long> userIds) {
+        written(writtenUsers, userIds);
+    }
+
+    public void readPaymentFromPrimaryIfWritten(Long paymentId) {
+        readFromPrimaryIfWritten(writtenPayments, paymentId);
+    }
+
+    public void readUserFromPrimaryIfWritten(Long userId) {
+        readFromPrimaryIfWritten(writtenUsers, userId);
+    }
+
+    // The window starts when the write is committed.
+    private void written(Cache<Long, Boolean> written, Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(id -> written.put(id, Boolean.TRUE));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> written.put(id, Boolean.TRUE));
+            }
+        });
+    }
+
+    // Outside of a transaction reads go to the primary anyway. The pin is released when the transaction completes.
+    private void readFromPrimaryIfWritten(Cache<Long, Boolean> written, Long id) {
+        if (!enabled || id == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || ReadReplicaRoutingDataSource.isPinnedToPrimary()
+                || written.getIfPresent(id) == null) {
+            return;
+        }
+        ReadReplicaRoutingDataSource.pinToPrimary(true);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ReadReplicaRoutingDataSource.pinToPrimary(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package ba.paymentservice.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+/**
+ * Reports the execution time of every SQL statement run on its connections, whatever endpoint runs it.
+ * Only the statement itself is timed, not the wait for a pooled connection. Batch executions are not reported:
+ * their time grows with the number of rows, so they would make a database under batch traffic look slow.
+ * Connections and statements are wrapped in plain delegating classes, other JDBC calls only pay one delegation.
+ */
+public class StatementLatencyDataSource extends DelegatingDataSource {
+
+    private final LongConsumer statementLatencyListener;
+
+    public StatementLatencyDataSource(DataSource targetDataSource, LongConsumer statementLatencyListener) {
+        super(targetDataSource);
+        this.statementLatencyListener = statementLatencyListener;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new TimedConnection(super.getConnection(), statementLatencyListener);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new TimedConnection(super.getConnection(username, password), statementLatencyListener);
+    }
+}
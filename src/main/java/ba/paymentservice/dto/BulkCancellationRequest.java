@@ -0,0 +1,10 @@
+package ba.paymentservice.dto;
+
+import java.util.List;
+
+// Either a list of payment IDs or a user whose payments created today are canceled.
+public record BulkCancellationRequest(
+        List<Long> paymentIds,
+        Long userId
+) {
+}
@@ -0,0 +1,12 @@
+package ba.paymentservice.dto;
+
+import java.util.List;
+
+public record BulkCancellationResponse(
+        List<PaymentCancellationResponse> canceled,
+        List<Long> alreadyCanceled,
+        // Payments that were not created today
+        List<Long> notEligible,
+        List<Long> notFound
+) {
+}
@@ -1,6 +1,18 @@
 package ba.paymentservice.dto;
 
 public enum Currency {
-    EUR,
-    USD,
+    EUR(2),
+    USD(2),
+    ;
+
+    // Digits after the decimal point, amounts of the currency are held as multiples of 10^-fractionDigits.
+    private final int fractionDigits;
+
+    Currency(int fractionDigits) {
+        this.fractionDigits = fractionDigits;
+    }
+
+    public int fractionDigits() {
+        return fractionDigits;
+    }
 }
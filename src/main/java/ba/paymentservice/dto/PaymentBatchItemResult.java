@@ -0,0 +1,22 @@
+package ba.paymentservice.dto;
+
+public record PaymentBatchItemResult(
+        int index,
+        Status status,
+        Long paymentId,
+        String error
+) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static PaymentBatchItemResult created(int index, Long paymentId) {
+        return new PaymentBatchItemResult(index, Status.CREATED, paymentId, null);
+    }
+
+    public static PaymentBatchItemResult rejected(int index, String error) {
+        return new PaymentBatchItemResult(index, Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package ba.paymentservice.dto;
+
+import java.util.List;
+
+public record PaymentBatchResponse(
+        int created,
+        int rejected,
+        List<PaymentBatchItemResult> results
+) {
+}
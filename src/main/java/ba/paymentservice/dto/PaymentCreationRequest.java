@@ -1,5 +1,7 @@
 package ba.paymentservice.dto;
 
+import ba.paymentservice.validator.ValidBic;
+import ba.paymentservice.validator.ValidIban;
 import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
@@ -10,6 +12,7 @@ public record PaymentCreationRequest(
 
         @NotNull(message = "Amount is required")
         @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+        @Digits(integer = 16, fraction = 2, message = "Amount must have at most 16 digits and 2 decimal places")
         BigDecimal amount,
 
         // Example
@@ -17,19 +20,18 @@ public record PaymentCreationRequest(
         Currency currency, // "EUR" or "USD"
 
         @NotBlank(message = "Debtor IBAN is required")
-        @Size(max = 34, message = "Debtor IBAN must be at most 34 characters")
+        @ValidIban(message = "Invalid debtor IBAN")
         String debtorIban,
 
         @NotBlank(message = "Creditor IBAN is required")
-        @Size(min = 15, max = 34, message = "IBAN must be between 15 and 34 characters")
-        @Pattern(regexp = "^[A-Z]{2}\\d{2}[A-Z0-9]{11,30}$", message = "Invalid IBAN format")
+        @ValidIban(message = "Invalid IBAN format")
         String creditorIban,
 
         // Type 1 and Type 2 payments require details
         String details,
 
         // Type 3 payments require creditor bank BIC
-        @Size(max = 11)
+        @ValidBic(message = "Invalid creditor bank BIC")
         String creditorBankBic,
 
         @NotNull(message = "User ID is required")
@@ -0,0 +1,6 @@
+package ba.paymentservice.dto;
+
+public enum PaymentEventType {
+    PAYMENT_CREATED,
+    PAYMENT_CANCELED
+}
@@ -0,0 +1,7 @@
+package ba.paymentservice.dto;
+
+import java.time.LocalDateTime;
+
+// Payments of the user (when set) created in [createdFrom, createdTo).
+public record PaymentExportFilter(Long userId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+}
@@ -0,0 +1,7 @@
+package ba.paymentservice.dto;
+
+import java.util.List;
+
+// nextAfterId is the cursor for the next page, null when there are no more payments.
+public record PaymentIdPage(List<Long> ids, Long nextAfterId) {
+}
@@ -0,0 +1,37 @@
+package ba.paymentservice.dto;
+
+import ba.paymentservice.model.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PaymentResponse(
+        Long id,
+        PaymentType paymentType,
+        BigDecimal amount,
+        Currency currency,
+        String debtorIban,
+        String creditorIban,
+        String details,
+        String creditorBankBic,
+        LocalDateTime createdAt,
+        boolean canceled,
+        BigDecimal cancellationFee
+) {
+
+    public static PaymentResponse from(Payment payment) {
+        return new PaymentResponse(
+                payment.getId(),
+                payment.getPaymentType(),
+                payment.getAmount(),
+                payment.getCurrency(),
+                payment.getDebtorIban(),
+                payment.getCreditorIban(),
+                payment.getDetails(),
+                payment.getCreditorBankBic(),
+                payment.getCreatedAt(),
+                payment.isCanceled(),
+                payment.getCancellationFee()
+        );
+    }
+}
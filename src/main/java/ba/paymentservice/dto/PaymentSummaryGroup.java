@@ -0,0 +1,16 @@
+package ba.paymentservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PaymentSummaryGroup(
+        Long userId,
+        LocalDate day,
+        Currency currency,
+        PaymentType paymentType,
+        long paymentCount,
+        BigDecimal totalAmount,
+        long canceledCount,
+        BigDecimal cancellationFees
+) {
+}
@@ -0,0 +1,6 @@
+package ba.paymentservice.dto;
+
+import java.util.List;
+
+public record PaymentSummaryResponse(List<PaymentSummaryGroup> groups, List<PaymentSummaryTotal> totals) {
+}
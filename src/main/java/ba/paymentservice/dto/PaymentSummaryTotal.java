@@ -0,0 +1,13 @@
+package ba.paymentservice.dto;
+
+import java.math.BigDecimal;
+
+// Totals are per currency, amounts in different currencies are not added up.
+public record PaymentSummaryTotal(
+        Currency currency,
+        long paymentCount,
+        BigDecimal totalAmount,
+        long canceledCount,
+        BigDecimal cancellationFees
+) {
+}
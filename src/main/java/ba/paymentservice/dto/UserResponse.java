@@ -0,0 +1,11 @@
+package ba.paymentservice.dto;
+
+import ba.paymentservice.model.User;
+
+// Payments of a user are listed through /api/users/{userId}/payments, not embedded here.
+public record UserResponse(Long id, String username) {
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getUsername());
+    }
+}
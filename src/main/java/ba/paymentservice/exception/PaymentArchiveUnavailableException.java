@@ -0,0 +1,13 @@
+package ba.paymentservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// An archived month is recorded in the database but its file is not in the archive directory of this instance.
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PaymentArchiveUnavailableException extends RuntimeException {
+
+    public PaymentArchiveUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package ba.paymentservice.exception;
+
+import java.util.List;
+
+// All rule violations of a payment request, the message joins them with "; ".
+public class PaymentValidationException extends BadRequestException {
+
+    private final List<String> violations;
+
+    public PaymentValidationException(List<String> violations) {
+        super(String.join("; ", violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
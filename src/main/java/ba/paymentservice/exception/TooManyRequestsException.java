@@ -0,0 +1,25 @@
+package ba.paymentservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A rate limit was exceeded, the client may retry after retryAfterSeconds.
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Retry-After is given in whole seconds, rounded up so that the retry finds a token.
+    public static TooManyRequestsException retryAfterNanos(String message, long waitNanos) {
+        return new TooManyRequestsException(message, Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
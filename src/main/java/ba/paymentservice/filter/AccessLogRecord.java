@@ -0,0 +1,30 @@
+package ba.paymentservice.filter;
+
+// Preallocated slot of the access log ring buffer, reused for every request written to it.
+class AccessLogRecord {
+
+    long timestampMillis;
+    String method;
+    String uri;
+    String query;
+    String clientIp;
+    int status;
+    long latencyNanos;
+
+    void set(long timestampMillis, String method, String uri, String query, String clientIp, int status, long latencyNanos) {
+        this.timestampMillis = timestampMillis;
+        this.method = method;
+        this.uri = uri;
+        this.query = query;
+        this.clientIp = clientIp;
+        this.status = status;
+        this.latencyNanos = latencyNanos;
+    }
+
+    void clear() {
+        method = null;
+        uri = null;
+        query = null;
+        clientIp = null;
+    }
+}
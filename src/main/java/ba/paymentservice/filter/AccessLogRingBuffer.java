@@ -0,0 +1,88 @@
+package ba.paymentservice.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring of preallocated access log records.
+ * Each slot carries a sequence number: a producer claims the slot for position p when its sequence equals p
+ * and publishes it by setting p + 1, the consumer frees it again by setting p + capacity.
+ * When the ring is full, records are dropped instead of blocking the request thread.
+ */
+class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Only accessed by the consumer thread.
+    private long head;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.records = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(long timestampMillis, String method, String uri, String query, String clientIp, int status, long latencyNanos) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    records[index].set(timestampMillis, method, uri, query, clientIp, status, latencyNanos);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds a record the consumer has not taken yet, the ring is full.
+                dropped.increment();
+                return false;
+            } else {
+                // Another producer claimed this position first.
+                position = tail.get();
+            }
+        }
+    }
+
+    // Passes up to maxRecords published records to the consumer in order. Must only be called from one thread.
+    int drain(Consumer<AccessLogRecord> consumer, int maxRecords) {
+        int drained = 0;
+        while (drained < maxRecords) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            var record = records[index];
+            consumer.accept(record);
+            record.clear();
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
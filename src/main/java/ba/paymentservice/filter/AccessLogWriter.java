@@ -0,0 +1,167 @@
+package ba.paymentservice.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread draining the access log ring buffer and appending the records as JSON lines to a file.
+ * Records are written in batches with one flush per batch. When the file cannot be written (disk full, file
+ * removed), the writer reopens it after a growing delay; records that do not fit into the ring buffer meanwhile
+ * are dropped and counted.
+ */
+class AccessLogWriter implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final Path file;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final long initialRetryDelayNanos;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private Writer writer;
+    private long reportedDropped;
+    // Reset to the initial delay whenever the file is opened again.
+    private long retryDelayNanos;
+
+    AccessLogWriter(AccessLogRingBuffer ringBuffer, Path file, int batchSize, Duration idleWait) {
+        this(ringBuffer, file, batchSize, idleWait, Duration.ofSeconds(1));
+    }
+
+    AccessLogWriter(AccessLogRingBuffer ringBuffer, Path file, int batchSize, Duration idleWait, Duration initialRetryDelay) {
+        this.ringBuffer = ringBuffer;
+        this.file = file;
+        this.batchSize = batchSize;
+        this.idleWaitNanos = idleWait.toNanos();
+        this.initialRetryDelayNanos = initialRetryDelay.toNanos();
+        this.retryDelayNanos = initialRetryDelayNanos;
+        this.thread = new Thread(this, "access-log-writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // Stops the thread after the records already in the ring buffer are written.
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(Duration.ofSeconds(5).toMillis());
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                writeUntilStopped();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // append() reports write errors as UncheckedIOException.
+                if (!running) {
+                    logger.error("Access log writer stopped, cannot write to {}", file, e);
+                    return;
+                }
+                logger.error("Cannot write access log to {}, reopening it in {} ms", file, retryDelayNanos / 1_000_000, e);
+                LockSupport.parkNanos(retryDelayNanos);
+                retryDelayNanos = Math.min(retryDelayNanos * 2, MAX_RETRY_DELAY.toNanos());
+            }
+        }
+    }
+
+    private void writeUntilStopped() throws IOException {
+        try (var out = open()) {
+            writer = out;
+            retryDelayNanos = initialRetryDelayNanos;
+            while (running) {
+                if (writeBatch() == 0) {
+                    reportDropped();
+                    LockSupport.parkNanos(idleWaitNanos);
+                }
+            }
+            while (writeBatch() > 0) {
+                // Drain what is left on shutdown.
+            }
+            reportDropped();
+        }
+    }
+
+    private Writer open() throws IOException {
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private int writeBatch() throws IOException {
+        int drained = ringBuffer.drain(this::append, batchSize);
+        if (drained > 0) {
+            writer.flush();
+        }
+        return drained;
+    }
+
+    private void append(AccessLogRecord record) {
+        line.setLength(0);
+        line.append("{\"timestamp\":").append(record.timestampMillis)
+                .append(",\"method\":");
+        appendString(record.method);
+        line.append(",\"uri\":");
+        appendString(record.uri);
+        line.append(",\"query\":");
+        appendString(record.query);
+        line.append(",\"clientIp\":");
+        appendString(record.clientIp);
+        line.append(",\"status\":").append(record.status)
+                .append(",\"latencyMicros\":").append(record.latencyNanos / 1_000)
+                .append("}\n");
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void reportDropped() {
+        long dropped = ringBuffer.dropped();
+        if (dropped > reportedDropped) {
+            logger.warn("Access log buffer was full, dropped {} records", dropped - reportedDropped);
+            reportedDropped = dropped;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ba.paymentservice.filter;
+
+import ba.paymentservice.dto.ApiError;
+import ba.paymentservice.exception.TooManyRequestsException;
+import ba.paymentservice.ratelimit.AdaptiveConcurrencyLimiter;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds load with 429 before a request reaches the controllers: first by the rate limit of the client IP,
+ * then by the adaptive concurrency limit. Registered in RateLimitConfig for the API paths.
+ * Streamed responses hold their concurrency permit only until they are handed to the async executor.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final long BUSY_RETRY_AFTER_SECONDS = 1;
+
+    private final TokenBucketRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(TokenBucketRateLimiter clientRateLimiter,
+                                  AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  ObjectMapper objectMapper) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Same client address as in the access log.
+        long waitNanos = clientRateLimiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            reject(request, response, TooManyRequestsException.retryAfterNanos("Too many requests from this client", waitNanos));
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(request, response, new TooManyRequestsException("Server is busy, please retry", BUSY_RETRY_AFTER_SECONDS));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    // Filters run outside of the DispatcherServlet, so the GlobalExceptionHandler response is written here.
+    private void reject(HttpServletRequest request, HttpServletResponse response, TooManyRequestsException exception)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                exception.getMessage(),
+                request.getRequestURI(),
+                LocalDateTime.now()));
+    }
+}
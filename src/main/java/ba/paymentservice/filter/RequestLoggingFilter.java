@@ -6,16 +6,52 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Access log filter. Request threads only copy a few references into a preallocated ring buffer slot,
+ * formatting and file I/O happen on a background writer thread.
+ * Requests processed asynchronously, such as streamed responses, are logged when their async dispatch ends,
+ * with the time since the request started.
+ */
+// Ordered before the admission control filter, so requests rejected with 429 are logged as well.
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final String START_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".start";
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final AccessLogRingBuffer ringBuffer;
+    private final AccessLogWriter writer;
+
+    public RequestLoggingFilter(@Value("${paymentservice.access-log.enabled:true}") boolean enabled,
+                                @Value("${paymentservice.access-log.file:logs/access.log}") String file,
+                                @Value("${paymentservice.access-log.buffer-size:8192}") int bufferSize,
+                                @Value("${paymentservice.access-log.batch-size:256}") int batchSize,
+                                @Value("${paymentservice.access-log.sample-rate:1.0}") double sampleRate,
+                                @Value("${paymentservice.access-log.idle-wait:10ms}") Duration idleWait) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.ringBuffer = new AccessLogRingBuffer(bufferSize);
+        this.writer = new AccessLogWriter(ringBuffer, Path.of(file), batchSize, idleWait);
+        if (enabled) {
+            writer.start();
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -23,21 +59,59 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain)
             throws ServletException, IOException {
 
-        String clientIp = request.getRemoteAddr();
-        String method = request.getMethod();
-        String requestURI = request.getRequestURI();
-        String queryString = request.getQueryString();
-
-        String endpoint = requestURI;
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (queryString != null && !queryString.isEmpty()) {
-            endpoint += "?" + queryString;
+        Long asyncStart = (Long) request.getAttribute(START_ATTRIBUTE);
+        long start = asyncStart != null ? asyncStart : System.nanoTime();
+        // A stream that failed after its response was committed still has the status it was started with.
+        boolean failed = isAsyncDispatch(request)
+                && WebAsyncUtils.getAsyncManager(request).getConcurrentResult() instanceof Throwable;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.setAttribute(START_ATTRIBUTE, start);
+            } else {
+                log(request, failed ? Math.max(response.getStatus(), 500) : response.getStatus(), start);
+            }
         }
+    }
+
+    // Logged once more on the async dispatch, which ends the request.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 
-        String message = String.format("Incoming request: %s %s; from IP: %s", method, endpoint, clientIp);
+    private void log(HttpServletRequest request, int status, long start) {
+        // Server errors are always logged, everything else according to the sample rate.
+        if (status >= 500 || sampled()) {
+            ringBuffer.offer(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                    request.getQueryString(), request.getRemoteAddr(), status, System.nanoTime() - start);
+        }
+    }
 
-        logger.info(message);
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
 
-        filterChain.doFilter(request, response);
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (!enabled) {
+            return;
+        }
+        try {
+            writer.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while flushing the access log");
+        }
     }
 }
@@ -0,0 +1,61 @@
+package ba.paymentservice.json;
+
+import ba.paymentservice.dto.PaymentResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link PaymentResponse} field by field instead of going through bean introspection.
+ * Field names and formats match what Jackson produced for the Payment entity.
+ */
+@JsonComponent
+public class PaymentResponseSerializer extends StdSerializer<PaymentResponse> {
+
+    public PaymentResponseSerializer() {
+        super(PaymentResponse.class);
+    }
+
+    @Override
+    public void serialize(PaymentResponse payment, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        if (payment.id() != null) {
+            generator.writeNumberField("id", payment.id());
+        } else {
+            generator.writeNullField("id");
+        }
+        writeStringField(generator, "paymentType", payment.paymentType() != null ? payment.paymentType().name() : null);
+        writeNumberField(generator, "amount", payment.amount());
+        writeStringField(generator, "currency", payment.currency() != null ? payment.currency().name() : null);
+        writeStringField(generator, "debtorIban", payment.debtorIban());
+        writeStringField(generator, "creditorIban", payment.creditorIban());
+        writeStringField(generator, "details", payment.details());
+        writeStringField(generator, "creditorBankBic", payment.creditorBankBic());
+        writeStringField(generator, "createdAt",
+                payment.createdAt() != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(payment.createdAt()) : null);
+        generator.writeBooleanField("canceled", payment.canceled());
+        writeNumberField(generator, "cancellationFee", payment.cancellationFee());
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        } else {
+            generator.writeNullField(name);
+        }
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        } else {
+            generator.writeNullField(name);
+        }
+    }
+}
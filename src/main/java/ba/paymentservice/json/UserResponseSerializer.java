@@ -0,0 +1,33 @@
+package ba.paymentservice.json;
+
+import ba.paymentservice.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+@JsonComponent
+public class UserResponseSerializer extends StdSerializer<UserResponse> {
+
+    public UserResponseSerializer() {
+        super(UserResponse.class);
+    }
+
+    @Override
+    public void serialize(UserResponse user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        if (user.id() != null) {
+            generator.writeNumberField("id", user.id());
+        } else {
+            generator.writeNullField("id");
+        }
+        if (user.username() != null) {
+            generator.writeStringField("username", user.username());
+        } else {
+            generator.writeNullField("username");
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,77 @@
+package ba.paymentservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint ({@code /actuator/latency}) summarizing request latency per endpoint
+ * and payment creation latency per phase, with request counts and p50/p99/p999 values in milliseconds.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public LatencyEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public LatencyReport latency() {
+        return new LatencyReport(
+                summarize(HTTP_SERVER_REQUESTS, "method", "uri", "status"),
+                summarize(LatencyMetrics.PHASE_TIMER, "phase"));
+    }
+
+    private List<TimerSummary> summarize(String timerName, String... tagKeys) {
+        return meterRegistry.find(timerName).timers().stream()
+                .map(timer -> summary(timer, tagKeys))
+                .sorted(Comparator.comparing(summary -> summary.tags().toString()))
+                .toList();
+    }
+
+    private TimerSummary summary(Timer timer, String... tagKeys) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (String key : tagKeys) {
+            String value = timer.getId().getTag(key);
+            if (value != null) {
+                tags.put(key, value);
+            }
+        }
+
+        var snapshot = timer.takeSnapshot();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + percentileLabel(value.percentile()), value.value(TimeUnit.MILLISECONDS));
+        }
+
+        return new TimerSummary(tags, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+    }
+
+    // 0.5 -> "50", 0.99 -> "99", 0.999 -> "999".
+    private static String percentileLabel(double percentile) {
+        String digits = Double.toString(percentile).substring(2);
+        return digits.length() == 1 ? digits + "0" : digits;
+    }
+
+    public record LatencyReport(List<TimerSummary> endpoints, List<TimerSummary> phases) {
+    }
+
+    public record TimerSummary(Map<String, String> tags, long count, double meanMillis, double maxMillis,
+                               Map<String, Double> percentilesMillis) {
+    }
+}
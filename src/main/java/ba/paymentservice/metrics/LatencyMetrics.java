@@ -0,0 +1,36 @@
+package ba.paymentservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers for the phases of payment creation, one timer per {@link LatencyPhase}.
+ * Timers are created up front so recording is an array lookup without tag resolution.
+ */
+@Component
+public class LatencyMetrics {
+
+    public static final String PHASE_TIMER = "payment.phase.latency";
+
+    private final Timer[] timers;
+
+    public LatencyMetrics(MeterRegistry meterRegistry) {
+        var phases = LatencyPhase.values();
+        this.timers = new Timer[phases.length];
+        for (var phase : phases) {
+            timers[phase.ordinal()] = Timer.builder(PHASE_TIMER)
+                    .description("Time spent in a phase of payment creation")
+                    .tag("phase", phase.tag())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(meterRegistry);
+        }
+    }
+
+    // Records the time elapsed since startNanos, taken from System.nanoTime().
+    public void record(LatencyPhase phase, long startNanos) {
+        timers[phase.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,19 @@
+package ba.paymentservice.metrics;
+
+public enum LatencyPhase {
+    BEAN_VALIDATION("bean-validation"),
+    PAYMENT_VALIDATION("payment-validation"),
+    USER_LOOKUP("user-lookup"),
+    REPOSITORY_SAVE("repository-save"),
+    SERIALIZATION("serialization");
+
+    private final String tag;
+
+    LatencyPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
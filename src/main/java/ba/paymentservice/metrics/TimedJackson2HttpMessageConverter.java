@@ -0,0 +1,54 @@
+package ba.paymentservice.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+// Jackson converter recording the time spent writing payment creation responses as the serialization phase.
+// Other responses are written without timing, the phase timers only cover payment creation.
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final Set<String> PAYMENT_CREATION_PATTERNS = Set.of("/api/payments", "/api/payments/batch");
+
+    private final LatencyMetrics latencyMetrics;
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, LatencyMetrics latencyMetrics) {
+        super(objectMapper);
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, @Nullable Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!isPaymentCreation(RequestContextHolder.getRequestAttributes())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            latencyMetrics.record(LatencyPhase.SERIALIZATION, start);
+        }
+    }
+
+    static boolean isPaymentCreation(@Nullable RequestAttributes requestAttributes) {
+        if (!(requestAttributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        var request = servletAttributes.getRequest();
+        return "POST".equals(request.getMethod())
+                && PAYMENT_CREATION_PATTERNS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+    }
+}
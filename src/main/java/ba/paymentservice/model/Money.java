@@ -0,0 +1,34 @@
+package ba.paymentservice.model;
+
+import ba.paymentservice.dto.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Fixed-point amount of money: a long count of minor units (e.g. cents) of its currency.
+ * Values with more fraction digits than the currency has are rounded {@link RoundingMode#HALF_EVEN},
+ * values that do not fit a long fail. Fees are computed by the cancel statements in SQL.
+ */
+public record Money(long minorUnits, Currency currency) {
+
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        return new Money(amount.setScale(currency.fractionDigits(), ROUNDING).unscaledValue().longValueExact(), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.fractionDigits());
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
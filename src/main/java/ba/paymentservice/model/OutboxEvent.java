@@ -0,0 +1,43 @@
+package ba.paymentservice.model;
+
+import ba.paymentservice.dto.PaymentEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment event waiting in the outbox table to be published. The payload is the event body as JSON.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_outbox_seq")
+    @SequenceGenerator(name = "payment_outbox_seq", sequenceName = "payment_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private PaymentEventType eventType;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent(PaymentEventType eventType, Long paymentId, String payload, LocalDateTime createdAt) {
+        this.eventType = eventType;
+        this.paymentId = paymentId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
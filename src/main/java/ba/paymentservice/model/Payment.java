@@ -5,6 +5,7 @@ import ba.paymentservice.dto.PaymentType;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,8 +18,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Payment {
 
+    // Sequence based ids are assigned before the insert, which lets Hibernate batch inserts.
+    // The effective allocation size is the sequence increment (paymentservice.id.allocation-size).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
 
     @Version
@@ -30,7 +34,7 @@ public class Payment {
     private PaymentType paymentType;
 
     @Setter
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 18, scale = 2)
     private BigDecimal amount;
 
     @Setter
@@ -54,7 +58,10 @@ public class Payment {
     @Column(name = "creditor_bank_bic", nullable = false, length = 11)
     private String creditorBankBic;
 
+    // The table is partitioned by month of creation, Hibernate adds the column to updates and deletes
+    // so they only touch the payment's partition.
     @Setter
+    @PartitionKey
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -63,12 +70,12 @@ public class Payment {
     private boolean canceled;
 
     @Setter
-    @Column(name = "cancellation_fee", nullable = false)
+    @Column(name = "cancellation_fee", nullable = false, precision = 18, scale = 2)
     private BigDecimal cancellationFee;
 
     @Setter
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(name = "fk_payment_user"))
     @JsonBackReference
     private User user;
 }
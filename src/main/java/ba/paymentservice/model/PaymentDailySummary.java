@@ -0,0 +1,38 @@
+package ba.paymentservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Rollup row of the payments of one user on one day in one currency and payment type.
+ * Only read through JPA, the rows are written by the upserts in PaymentSummaryRepository.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "payment_daily_summary")
+public class PaymentDailySummary {
+
+    @EmbeddedId
+    private PaymentDailySummaryKey key;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 20, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "canceled_count", nullable = false)
+    private long canceledCount;
+
+    @Column(name = "cancellation_fees", nullable = false, precision = 20, scale = 2)
+    private BigDecimal cancellationFees;
+}
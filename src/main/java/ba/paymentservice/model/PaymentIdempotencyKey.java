@@ -0,0 +1,56 @@
+package ba.paymentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_idempotency_key")
+public class PaymentIdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null for keys stored before request hashes were recorded.
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    // The key is assigned by the client, without this flag save() would select the row before inserting it.
+    @Transient
+    private boolean newKey = true;
+
+    public PaymentIdempotencyKey(String key, Long paymentId, LocalDateTime createdAt, String requestHash) {
+        this.key = key;
+        this.paymentId = paymentId;
+        this.createdAt = createdAt;
+        this.requestHash = requestHash;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newKey;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newKey = false;
+    }
+}
@@ -15,8 +15,10 @@ import java.util.List;
 @Table(name = "users")
 public class User {
 
+    // The effective allocation size is the sequence increment (paymentservice.id.allocation-size).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Version
@@ -0,0 +1,64 @@
+package ba.paymentservice.outbox;
+
+import ba.paymentservice.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends published events to a file, one JSON object per line (paymentservice.outbox.sink=file).
+ * The file is synced before returning, so a batch is on disk before it is removed from the outbox.
+ */
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final JsonFactory jsonFactory;
+    private final Path file;
+
+    public FileOutboxEventSink(JsonFactory jsonFactory, Path file) {
+        this.jsonFactory = jsonFactory;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            var parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (var out = new FileOutputStream(file.toFile(), true)) {
+                try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                    generator.setRootValueSeparator(null);
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    for (var event : events) {
+                        write(generator, event);
+                    }
+                }
+                out.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write outbox events to " + file, e);
+        }
+    }
+
+    private static void write(JsonGenerator generator, OutboxEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", event.getId());
+        generator.writeStringField("type", event.getEventType().name());
+        generator.writeNumberField("paymentId", event.getPaymentId());
+        generator.writeStringField("createdAt", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(event.getCreatedAt()));
+        // The payload is already JSON.
+        generator.writeFieldName("payload");
+        generator.writeRawValue(event.getPayload());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,25 @@
+package ba.paymentservice.outbox;
+
+import ba.paymentservice.model.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps published events in memory, for tests and local runs (paymentservice.outbox.sink=memory).
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
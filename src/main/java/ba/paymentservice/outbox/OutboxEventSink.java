@@ -0,0 +1,15 @@
+package ba.paymentservice.outbox;
+
+import ba.paymentservice.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the events published by the outbox relay. The events of a batch are removed from the outbox
+ * only after {@link #publish} returned, an exception leaves them in place to be published again.
+ * Delivery is therefore at least once and consumers should deduplicate by event id.
+ */
+public interface OutboxEventSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,137 @@
+package ba.paymentservice.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests in flight. The limit follows the observed database latency, the execution time
+ * of single SQL statements (see StatementLatencyDataSource): once per update interval the average latency is
+ * compared to a slowly moving baseline. While the average stays within
+ * tolerance times the baseline, the limit grows by about its square root; when the database gets slower,
+ * the limit shrinks in proportion, down to half per interval.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Decreases apply at once, increases are smoothed so the limit does not overshoot.
+    private static final double INCREASE_SMOOTHING = 0.2;
+    // The baseline drops to a lower average at once and follows a higher one slowly, so that a lasting change
+    // of the database (more data, other hardware) eventually becomes the new normal.
+    private static final double BASELINE_SMOOTHING = 0.01;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long updateIntervalNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final AtomicLong nextUpdate;
+    private volatile int limit;
+
+    // Only accessed by the thread that won the update.
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, Duration updateInterval) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1");
+        }
+        this.enabled = true;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.updateIntervalNanos = updateInterval.toNanos();
+        this.nextUpdate = new AtomicLong(System.nanoTime() + updateIntervalNanos);
+        this.limit = initialLimit;
+    }
+
+    private AdaptiveConcurrencyLimiter() {
+        this.enabled = false;
+        this.minLimit = Integer.MAX_VALUE;
+        this.maxLimit = Integer.MAX_VALUE;
+        this.tolerance = 1;
+        this.updateIntervalNanos = 0;
+        this.nextUpdate = new AtomicLong();
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    // A limiter that admits everything, used when admission control is turned off.
+    public static AdaptiveConcurrencyLimiter unlimited() {
+        return new AdaptiveConcurrencyLimiter();
+    }
+
+    // Every successful tryAcquire must be followed by a release.
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public void onDatabaseLatency(long nanos) {
+        if (enabled) {
+            onDatabaseLatency(nanos, System.nanoTime());
+        }
+    }
+
+    void onDatabaseLatency(long nanos, long nowNanos) {
+        latencySum.add(nanos);
+        latencyCount.increment();
+        long next = nextUpdate.get();
+        if (nowNanos - next >= 0 && nextUpdate.compareAndSet(next, nowNanos + updateIntervalNanos)) {
+            update();
+        }
+    }
+
+    private void update() {
+        // Samples recorded while the adders are reset may be counted in the next interval, which is fine for an average.
+        long count = latencyCount.sumThenReset();
+        long sum = latencySum.sumThenReset();
+        if (count == 0 || sum <= 0) {
+            return;
+        }
+        double average = (double) sum / count;
+        baselineNanos = baselineNanos == 0
+                ? average
+                : Math.min(average, baselineNanos * (1 - BASELINE_SMOOTHING) + average * BASELINE_SMOOTHING);
+
+        int current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / average));
+        double target = current * gradient + Math.sqrt(current);
+        if (target > current) {
+            // Without requests queueing up to the limit, low latency says nothing about a higher limit.
+            if (inFlight.get() < current / 2) {
+                return;
+            }
+            target = current + Math.max(1, (target - current) * INCREASE_SMOOTHING);
+        }
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(target)));
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
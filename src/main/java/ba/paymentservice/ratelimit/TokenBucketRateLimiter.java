@@ -0,0 +1,98 @@
+package ba.paymentservice.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets, one per key. A bucket holds up to capacity tokens and refills at a fixed rate.
+ * Each bucket is a single long, the time at which it is full again (the theoretical arrival time of the
+ * generic cell rate algorithm), so taking a token is one compare-and-set.
+ * Buckets idle for longer than a full refill are evicted, they would be full anyway.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<Object, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, long maxKeys) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000 / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    private TokenBucketRateLimiter() {
+        this.intervalNanos = 0;
+        this.burstNanos = 0;
+        this.buckets = null;
+    }
+
+    // A limiter that admits everything, used when rate limiting is turned off.
+    public static TokenBucketRateLimiter unlimited() {
+        return new TokenBucketRateLimiter();
+    }
+
+    // Takes a token from the bucket of the key. Returns 0 when it was taken, otherwise the nanoseconds
+    // until the next token is available.
+    public long tryAcquire(Object key) {
+        return buckets == null ? 0 : tryAcquire(key, System.nanoTime());
+    }
+
+    // Takes a token from the bucket of every key, or none: the tokens already taken are given back when a bucket
+    // is empty. Returns 0 when all were taken, otherwise the nanoseconds until the empty bucket has a token.
+    public long tryAcquireAll(Collection<?> keys) {
+        return buckets == null ? 0 : tryAcquireAll(keys, System.nanoTime());
+    }
+
+    long tryAcquireAll(Collection<?> keys, long nowNanos) {
+        int taken = 0;
+        for (var key : keys) {
+            long waitNanos = tryAcquire(key, nowNanos);
+            if (waitNanos > 0) {
+                var iterator = keys.iterator();
+                for (int i = 0; i < taken; i++) {
+                    release(iterator.next());
+                }
+                return waitNanos;
+            }
+            taken++;
+        }
+        return 0;
+    }
+
+    long tryAcquire(Object key, long nowNanos) {
+        var bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long newFullAt = (fullAt - nowNanos > 0 ? fullAt : nowNanos) + intervalNanos;
+            long waitNanos = newFullAt - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken from the bucket of the key.
+    private void release(Object key) {
+        var bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ba.paymentservice.repository;
+
+import java.math.BigDecimal;
+
+public interface CanceledPaymentProjection {
+    Long getId();
+
+    BigDecimal getCancellationFee();
+}
@@ -0,0 +1,15 @@
+package ba.paymentservice.repository;
+
+import ba.paymentservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rows locked by another relay are skipped, so several instances can publish without waiting on each other.
+    @Query(value = "select * from payment_outbox order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
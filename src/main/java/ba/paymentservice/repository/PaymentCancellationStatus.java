@@ -0,0 +1,12 @@
+package ba.paymentservice.repository;
+
+import java.time.LocalDateTime;
+
+public interface PaymentCancellationStatus {
+    // Only the fields deciding whether a payment can be canceled.
+    Long getId();
+
+    boolean isCanceled();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,22 @@
+package ba.paymentservice.repository;
+
+import ba.paymentservice.model.PaymentIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface PaymentIdempotencyKeyRepository extends JpaRepository<PaymentIdempotencyKey, String> {
+
+    // Keys of archived payments, their payments can no longer be returned to a retried request.
+    @Modifying
+    @Query("delete from PaymentIdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+    // Keys of the payments of a user, to be deleted before the user and their payments.
+    @Modifying
+    @Query("delete from PaymentIdempotencyKey k where k.paymentId in (select p.id from Payment p where p.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
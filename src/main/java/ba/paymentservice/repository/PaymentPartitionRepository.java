@@ -0,0 +1,115 @@
+package ba.paymentservice.repository;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.archive.PaymentArchiveRecord;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly partitions of the payment table (see V10__partition_payment_by_month.sql), named payment_pYYYY_MM,
+ * and the months moved to the archive (payment_archive_month).
+ * Partition DDL is not covered by JPA, the statements are run through JDBC.
+ */
+@Repository
+public class PaymentPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("payment_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentPartitionRepository(JdbcTemplate jdbcTemplate) {
+        // Archived partitions are read through a cursor instead of loading them at once.
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList("""
+                        select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                        where i.inhparent = 'payment'::regclass
+                        """, String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(matcher -> matcher.matches())
+                .map(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                .sorted()
+                .toList();
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("create table if not exists %s partition of payment for values from ('%s') to ('%s')"
+                .formatted(partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    public long countPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject("select count(*) from " + partitionName(month), Long.class);
+    }
+
+    // Must run inside a transaction, otherwise the driver ignores the fetch size and reads the whole partition.
+    public void streamPartition(YearMonth month, Consumer<PaymentArchiveRecord> consumer) {
+        jdbcTemplate.query("""
+                select id, user_id, payment_type, amount, currency, debtor_iban, creditor_iban, details,
+                       creditor_bank_bic, created_at, canceled, cancellation_fee
+                from %s order by id
+                """.formatted(partitionName(month)), resultSet -> {
+            consumer.accept(new PaymentArchiveRecord(
+                    resultSet.getLong("id"),
+                    resultSet.getObject("user_id", Long.class),
+                    PaymentType.valueOf(resultSet.getString("payment_type")),
+                    resultSet.getBigDecimal("amount"),
+                    Currency.valueOf(resultSet.getString("currency")),
+                    resultSet.getString("debtor_iban"),
+                    resultSet.getString("creditor_iban"),
+                    resultSet.getString("details"),
+                    resultSet.getString("creditor_bank_bic"),
+                    resultSet.getTimestamp("created_at").toLocalDateTime(),
+                    resultSet.getBoolean("canceled"),
+                    resultSet.getBigDecimal("cancellation_fee")));
+        });
+    }
+
+    public void dropPartition(YearMonth month) {
+        var name = partitionName(month);
+        jdbcTemplate.execute("alter table payment detach partition " + name);
+        jdbcTemplate.execute("drop table " + name);
+    }
+
+    // Written in the transaction that drops the partition of the month.
+    public void recordArchivedMonth(ArchivedMonth archivedMonth) {
+        jdbcTemplate.update("""
+                insert into payment_archive_month (month, payment_count, min_id, max_id, archived_at)
+                values (?, ?, ?, ?, ?)
+                """, Date.valueOf(archivedMonth.month().atDay(1)), archivedMonth.paymentCount(),
+                archivedMonth.minId(), archivedMonth.maxId(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public List<ArchivedMonth> findArchivedMonths() {
+        return jdbcTemplate.query("select month, payment_count, min_id, max_id from payment_archive_month order by month",
+                (resultSet, row) -> new ArchivedMonth(
+                        YearMonth.from(resultSet.getDate("month").toLocalDate()),
+                        resultSet.getLong("payment_count"),
+                        resultSet.getObject("min_id", Long.class),
+                        resultSet.getObject("max_id", Long.class)));
+    }
+
+    // Serializes partition maintenance between instances, released when the transaction ends.
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select pg_try_advisory_xact_lock(hashtext('payment_partition_maintenance'))", Boolean.class));
+    }
+
+    static String partitionName(YearMonth month) {
+        return "payment_p" + PARTITION_SUFFIX.format(month);
+    }
+}
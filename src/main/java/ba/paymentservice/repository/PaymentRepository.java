@@ -1,10 +1,23 @@
 package ba.paymentservice.repository;
 
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.dto.PaymentResponse;
 import ba.paymentservice.model.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
@@ -15,4 +28,126 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<PaymentIdProjection> findByCanceledAndAmount(Boolean canceled, BigDecimal amount);
 
     List<PaymentIdProjection> findByUserId(Long userId);
+
+    // Reads only the columns of the cancellation info instead of the whole entity.
+    @Query("select new ba.paymentservice.dto.PaymentCancellationResponse(p.id, p.cancellationFee) from Payment p where p.id = :id")
+    Optional<PaymentCancellationResponse> findCancellationResponseById(@Param("id") Long id);
+
+    // Marks matching payments canceled and computes their fee in the same statement: the hour of creation
+    // times the coefficient of the payment type, see PaymentService.cancellationFeeCoefficient. Both are
+    // numeric, so the fee is exact in the scale of the coefficient.
+    String CANCEL_SET_CLAUSE = """
+            set canceled = true,
+                cancellation_fee = extract(hour from created_at) * case payment_type
+                    when 'TYPE1' then :type1Coefficient
+                    when 'TYPE2' then :type2Coefficient
+                    when 'TYPE3' then :type3Coefficient
+                end,
+                version = version + 1
+            """;
+
+    // Cancels the payment in a single statement if it is not canceled yet and was created inside the given window.
+    // Returns the canceled payment, or nothing if no row matched.
+    @Transactional
+    @Query(value = "update payment " + CANCEL_SET_CLAUSE + """
+            where id = :id
+              and canceled = false
+              and created_at >= :createdFrom
+              and created_at < :createdTo
+            returning *
+            """, nativeQuery = true)
+    Optional<Payment> cancelIfCancelable(@Param("id") Long id,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo,
+                                         @Param("type1Coefficient") BigDecimal type1Coefficient,
+                                         @Param("type2Coefficient") BigDecimal type2Coefficient,
+                                         @Param("type3Coefficient") BigDecimal type3Coefficient);
+
+    // Set-wise variant of cancelIfCancelable for a list of payment IDs.
+    @Transactional
+    @Query(value = "update payment " + CANCEL_SET_CLAUSE + """
+            where id in (:ids)
+              and canceled = false
+              and created_at >= :createdFrom
+              and created_at < :createdTo
+            returning id, cancellation_fee as "cancellationFee"
+            """, nativeQuery = true)
+    List<CanceledPaymentProjection> cancelAllIfCancelable(@Param("ids") Collection<Long> ids,
+                                                          @Param("createdFrom") LocalDateTime createdFrom,
+                                                          @Param("createdTo") LocalDateTime createdTo,
+                                                          @Param("type1Coefficient") BigDecimal type1Coefficient,
+                                                          @Param("type2Coefficient") BigDecimal type2Coefficient,
+                                                          @Param("type3Coefficient") BigDecimal type3Coefficient);
+
+    // Set-wise cancel of all payments of a user created inside the given window.
+    @Transactional
+    @Query(value = "update payment " + CANCEL_SET_CLAUSE + """
+            where user_id = :userId
+              and canceled = false
+              and created_at >= :createdFrom
+              and created_at < :createdTo
+            returning id, cancellation_fee as "cancellationFee"
+            """, nativeQuery = true)
+    List<CanceledPaymentProjection> cancelAllByUserIfCancelable(@Param("userId") Long userId,
+                                                                @Param("createdFrom") LocalDateTime createdFrom,
+                                                                @Param("createdTo") LocalDateTime createdTo,
+                                                                @Param("type1Coefficient") BigDecimal type1Coefficient,
+                                                                @Param("type2Coefficient") BigDecimal type2Coefficient,
+                                                                @Param("type3Coefficient") BigDecimal type3Coefficient);
+
+    Optional<PaymentCancellationStatus> findCancellationStatusById(Long id);
+
+    List<PaymentCancellationStatus> findCancellationStatusByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select p.id from Payment p
+            where p.user.id = :userId and p.canceled = true and p.createdAt >= :createdFrom and p.createdAt < :createdTo
+            order by p.id
+            """)
+    List<Long> findCanceledIdsByUserCreatedBetween(@Param("userId") Long userId,
+                                                   @Param("createdFrom") LocalDateTime createdFrom,
+                                                   @Param("createdTo") LocalDateTime createdTo);
+
+    // Keyset pagination: returns the next page of IDs in ascending order after the given ID.
+    // Only the page size of the pageable is used, the position is given by afterId.
+    @Query("select p.id from Payment p where p.canceled = false and p.id > :afterId order by p.id")
+    List<Long> findNonCanceledIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select p.id from Payment p where p.canceled = false and p.amount = :amount and p.id > :afterId order by p.id")
+    List<Long> findNonCanceledIdsByAmountAfter(@Param("amount") BigDecimal amount, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select p.id from Payment p where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<Long> findIdsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") long afterId, Pageable pageable);
+
+    // Streams read IDs from a server side cursor in chunks of the fetch size.
+    // They must be consumed and closed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id from Payment p where p.canceled = false order by p.id")
+    Stream<Long> streamNonCanceledIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id from Payment p where p.canceled = false and p.amount = :amount order by p.id")
+    Stream<Long> streamNonCanceledIdsByAmount(@Param("amount") BigDecimal amount);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id from Payment p where p.user.id = :userId order by p.id")
+    Stream<Long> streamIdsByUserId(@Param("userId") Long userId);
+
+    // Export rows are selected straight into response records, nothing is added to the persistence context.
+    String EXPORT_SELECT = """
+            select new ba.paymentservice.dto.PaymentResponse(p.id, p.paymentType, p.amount, p.currency,
+                p.debtorIban, p.creditorIban, p.details, p.creditorBankBic, p.createdAt, p.canceled, p.cancellationFee)
+            from Payment p
+            """;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(EXPORT_SELECT + "where p.user.id = :userId and p.createdAt >= :from and p.createdAt < :to order by p.id")
+    Stream<PaymentResponse> streamExportByUserId(@Param("userId") Long userId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(EXPORT_SELECT + "where p.createdAt >= :from and p.createdAt < :to order by p.createdAt, p.id")
+    Stream<PaymentResponse> streamExportByCreatedAt(@Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,103 @@
+package ba.paymentservice.repository;
+
+import ba.paymentservice.dto.PaymentSummaryGroup;
+import ba.paymentservice.model.PaymentDailySummary;
+import ba.paymentservice.model.PaymentDailySummaryKey;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and maintains payment_daily_summary. The upserts add the given payments to their groups,
+ * groups are locked in key order so concurrent batches do not deadlock. Their created_at range restricts the
+ * payment lookup to the partitions of the payments.
+ */
+public interface PaymentSummaryRepository extends Repository<PaymentDailySummary, PaymentDailySummaryKey> {
+
+    String GROUP_SELECT = """
+            select new ba.paymentservice.dto.PaymentSummaryGroup(s.key.userId, s.key.createdOn, s.key.currency,
+                s.key.paymentType, s.paymentCount, s.totalAmount, s.canceledCount, s.cancellationFees)
+            from PaymentDailySummary s
+            """;
+
+    String GROUP_ORDER = " order by s.key.createdOn, s.key.userId, s.key.currency, s.key.paymentType";
+
+    String ADD_CREATED = """
+            insert into payment_daily_summary (user_id, created_on, currency, payment_type,
+                                               payment_count, total_amount, canceled_count, cancellation_fees)
+            select user_id, cast(created_at as date), currency, payment_type, count(*), sum(amount), 0, 0
+            from payment
+            where id in (:ids) and created_at >= :createdFrom and created_at < :createdTo and user_id is not null
+            group by 1, 2, 3, 4
+            order by 1, 2, 3, 4
+            on conflict (user_id, created_on, currency, payment_type) do update
+            set payment_count = payment_daily_summary.payment_count + excluded.payment_count,
+                total_amount = payment_daily_summary.total_amount + excluded.total_amount
+            """;
+
+    String ADD_CANCELED = """
+            insert into payment_daily_summary (user_id, created_on, currency, payment_type,
+                                               payment_count, total_amount, canceled_count, cancellation_fees)
+            select user_id, cast(created_at as date), currency, payment_type, 0, 0, count(*), sum(cancellation_fee)
+            from payment
+            where id in (:ids) and created_at >= :createdFrom and created_at < :createdTo and user_id is not null
+                and canceled
+            group by 1, 2, 3, 4
+            order by 1, 2, 3, 4
+            on conflict (user_id, created_on, currency, payment_type) do update
+            set canceled_count = payment_daily_summary.canceled_count + excluded.canceled_count,
+                cancellation_fees = payment_daily_summary.cancellation_fees + excluded.cancellation_fees
+            """;
+
+    @Query(GROUP_SELECT + "where s.key.userId = :userId and s.key.createdOn >= :from and s.key.createdOn <= :to" + GROUP_ORDER)
+    List<PaymentSummaryGroup> findGroupsByUserId(@Param("userId") Long userId,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+
+    @Query(GROUP_SELECT + "where s.key.createdOn >= :from and s.key.createdOn <= :to" + GROUP_ORDER)
+    List<PaymentSummaryGroup> findGroups(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = ADD_CREATED, nativeQuery = true)
+    int addCreated(@Param("ids") Collection<Long> paymentIds,
+                   @Param("createdFrom") LocalDateTime createdFrom,
+                   @Param("createdTo") LocalDateTime createdTo);
+
+    // A canceled payment was added by addCreated before, its group row exists.
+    @Modifying
+    @Query(value = ADD_CANCELED, nativeQuery = true)
+    int addCanceled(@Param("ids") Collection<Long> paymentIds,
+                    @Param("createdFrom") LocalDateTime createdFrom,
+                    @Param("createdTo") LocalDateTime createdTo);
+
+    // Blocks concurrent upserts until the rebuild commits, they are applied on top of the rebuilt rows.
+    @Modifying
+    @Query(value = "lock table payment_daily_summary in exclusive mode", nativeQuery = true)
+    void lockForRebuild();
+
+    // Groups of archived months are kept, their payments are no longer in the payment table.
+    @Modifying
+    @Query(value = """
+            delete from payment_daily_summary
+            where created_on >= (select date_trunc('month', min(created_at)) from payment)
+            """, nativeQuery = true)
+    int deleteHotGroups();
+
+    @Modifying
+    @Query(value = """
+            insert into payment_daily_summary (user_id, created_on, currency, payment_type,
+                                               payment_count, total_amount, canceled_count, cancellation_fees)
+            select user_id, cast(created_at as date), currency, payment_type, count(*), sum(amount),
+                   count(*) filter (where canceled), coalesce(sum(cancellation_fee) filter (where canceled), 0)
+            from payment
+            where user_id is not null
+            group by 1, 2, 3, 4
+            """, nativeQuery = true)
+    int insertAllGroups();
+}
@@ -0,0 +1,72 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.archive.PaymentArchive;
+import ba.paymentservice.archive.PaymentArchiveRecord;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.exception.PaymentArchiveUnavailableException;
+import ba.paymentservice.repository.PaymentPartitionRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Payments of the months moved to the {@link PaymentArchive}. The archived months are recorded in the database,
+ * so a month whose file is missing from the archive directory of this instance fails the read with 503 instead
+ * of being left out. PAYMENT_ARCHIVE_DIR has to be storage shared by all instances.
+ * Callers read archive files outside of transactions, so no database connection is held while months are decompressed.
+ */
+@Service
+public class ArchivedPaymentService {
+
+    private final PaymentPartitionRepository partitionRepository;
+    private final PaymentArchive paymentArchive;
+
+    public ArchivedPaymentService(PaymentPartitionRepository partitionRepository, PaymentArchive paymentArchive) {
+        this.partitionRepository = partitionRepository;
+        this.paymentArchive = paymentArchive;
+    }
+
+    // Only the months whose id range contains the payment are read.
+    public Optional<PaymentArchiveRecord> findPayment(Long paymentId) {
+        for (var archivedMonth : partitionRepository.findArchivedMonths()) {
+            if (archivedMonth.mayContain(paymentId)) {
+                var payment = paymentArchive.findPayment(requireFile(archivedMonth), paymentId);
+                if (payment.isPresent()) {
+                    return payment;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Archived months with payments created in [from, to). Fails when one of them is missing here, so that an
+    // export is rejected before its response is committed.
+    public List<ArchivedMonth> archivedMonths(LocalDateTime from, LocalDateTime to) {
+        var months = partitionRepository.findArchivedMonths().stream()
+                .filter(archivedMonth -> archivedMonth.overlaps(from, to))
+                .toList();
+        months.forEach(this::requireFile);
+        return months;
+    }
+
+    // Payments created in [from, to), optionally of one user, month by month.
+    public void readPayments(List<ArchivedMonth> months, LocalDateTime from, LocalDateTime to, Long userId,
+                             Consumer<PaymentResponse> consumer) {
+        for (var archivedMonth : months) {
+            paymentArchive.readPayments(requireFile(archivedMonth), from, to, userId, consumer);
+        }
+    }
+
+    private YearMonth requireFile(ArchivedMonth archivedMonth) {
+        if (!paymentArchive.contains(archivedMonth.month())) {
+            throw new PaymentArchiveUnavailableException(
+                    "Archived payments of " + archivedMonth.month() + " are not available on this instance");
+        }
+        return archivedMonth.month();
+    }
+}
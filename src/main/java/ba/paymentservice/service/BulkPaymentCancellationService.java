@@ -0,0 +1,132 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.BulkCancellationRequest;
+import ba.paymentservice.dto.BulkCancellationResponse;
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.repository.CanceledPaymentProjection;
+import ba.paymentservice.repository.PaymentCancellationStatus;
+import ba.paymentservice.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cancels many payments at once. The same-day rule and the fee calculation of
+ * {@link PaymentService#cancelPaymentById} are applied by a single set-wise update.
+ */
+@Service
+public class BulkPaymentCancellationService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentCancellationCacheEviction cacheEviction;
+    private final PaymentOutbox paymentOutbox;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentSummaryService paymentSummaryService;
+    private final int maxBatchSize;
+
+    public BulkPaymentCancellationService(PaymentRepository paymentRepository,
+                                          PaymentCancellationCacheEviction cacheEviction,
+                                          PaymentOutbox paymentOutbox,
+                                          ReadYourWrites readYourWrites,
+                                          PaymentSummaryService paymentSummaryService,
+                                          @Value("${paymentservice.batch.max-size}") int maxBatchSize) {
+        this.paymentRepository = paymentRepository;
+        this.cacheEviction = cacheEviction;
+        this.paymentOutbox = paymentOutbox;
+        this.readYourWrites = readYourWrites;
+        this.paymentSummaryService = paymentSummaryService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Transactional
+    public BulkCancellationResponse cancelPayments(BulkCancellationRequest request) {
+        boolean byIds = request.paymentIds() != null && !request.paymentIds().isEmpty();
+        if (byIds == (request.userId() != null)) {
+            throw new BadRequestException("Either paymentIds or userId must be provided");
+        }
+
+        var today = LocalDate.now().atStartOfDay();
+        var response = byIds
+                ? cancelByIds(request.paymentIds(), today, today.plusDays(1))
+                : cancelByUser(request.userId(), today, today.plusDays(1));
+
+        paymentOutbox.paymentsCanceled(response.canceled());
+        var canceledIds = response.canceled().stream().map(PaymentCancellationResponse::id).toList();
+        paymentSummaryService.paymentsCanceled(canceledIds, today, today.plusDays(1));
+        readYourWrites.paymentsWritten(canceledIds);
+        if (!byIds) {
+            // Listings of the user's payments must show the cancellations too.
+            readYourWrites.userWritten(request.userId());
+        }
+        cacheEviction.evictAfterCommit(canceledIds);
+        return response;
+    }
+
+    private BulkCancellationResponse cancelByIds(List<Long> paymentIds, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        Set<Long> ids = new LinkedHashSet<>(paymentIds);
+        if (ids.contains(null)) {
+            throw new BadRequestException("Payment IDs must not be null");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " payments can be canceled at once");
+        }
+
+        var canceled = toResponses(paymentRepository.cancelAllIfCancelable(ids, createdFrom, createdTo,
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE1),
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE2),
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE3)));
+
+        // Classify the IDs that were not canceled with one more query.
+        canceled.forEach(response -> ids.remove(response.id()));
+        List<Long> alreadyCanceled = new ArrayList<>();
+        List<Long> notEligible = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            Map<Long, PaymentCancellationStatus> statuses = paymentRepository.findCancellationStatusByIdIn(ids).stream()
+                    .collect(Collectors.toMap(PaymentCancellationStatus::getId, Function.identity()));
+            for (Long id : ids) {
+                var status = statuses.get(id);
+                if (status == null) {
+                    notFound.add(id);
+                } else if (status.isCanceled()) {
+                    alreadyCanceled.add(id);
+                } else {
+                    notEligible.add(id);
+                }
+            }
+        }
+
+        return new BulkCancellationResponse(canceled, alreadyCanceled, notEligible, notFound);
+    }
+
+    private BulkCancellationResponse cancelByUser(Long userId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        // Read the already canceled payments first so the ones canceled by this request are not included.
+        var alreadyCanceled = paymentRepository.findCanceledIdsByUserCreatedBetween(userId, createdFrom, createdTo);
+
+        var canceled = toResponses(paymentRepository.cancelAllByUserIfCancelable(userId, createdFrom, createdTo,
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE1),
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE2),
+                PaymentService.cancellationFeeCoefficient(PaymentType.TYPE3)));
+
+        return new BulkCancellationResponse(canceled, alreadyCanceled, List.of(), List.of());
+    }
+
+    private List<PaymentCancellationResponse> toResponses(List<CanceledPaymentProjection> canceled) {
+        return canceled.stream()
+                .map(payment -> new PaymentCancellationResponse(payment.getId(), payment.getCancellationFee()))
+                .toList();
+    }
+}
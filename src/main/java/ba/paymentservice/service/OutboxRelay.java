@@ -0,0 +1,63 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.outbox.OutboxEventSink;
+import ba.paymentservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes outbox events to the configured {@link OutboxEventSink} in batches of
+ * paymentservice.outbox.batch-size, oldest first, and deletes them once the sink accepted them.
+ */
+@Component
+@ConditionalOnProperty(name = "paymentservice.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxEventSink sink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${paymentservice.outbox.batch-size}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${paymentservice.outbox.relay-interval}")
+    public void relay() {
+        try {
+            // Keep going while full batches come back, a backlog is drained in one run.
+            while (publishBatch() == batchSize) {
+                // next batch
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Publishing outbox events failed, they are retried on the next run", e);
+        }
+    }
+
+    // The batch stays locked until it is deleted, a failing sink rolls back and leaves the events in the outbox.
+    int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            var events = outboxEventRepository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            sink.publish(events);
+            outboxEventRepository.deleteAllInBatch(events);
+            return events.size();
+        });
+        return published == null ? 0 : published;
+    }
+}
@@ -0,0 +1,41 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.config.CacheConfig;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Drops the cached cancellation info of canceled payments, see {@link PaymentService#getPaymentCancellationResponse}.
+ * Inside a transaction the entries are evicted after the commit: evicted earlier, a concurrent read could put the
+ * pre-cancellation row back into the cache.
+ */
+@Component
+public class PaymentCancellationCacheEviction {
+
+    private final CacheManager cacheManager;
+
+    public PaymentCancellationCacheEviction(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictAfterCommit(Collection<Long> paymentIds) {
+        var cache = cacheManager.getCache(CacheConfig.PAYMENT_CANCELLATION_CACHE);
+        if (cache == null || paymentIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            paymentIds.forEach(cache::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                paymentIds.forEach(cache::evict);
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.PaymentExportFilter;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.repository.PaymentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Full payment records for reconciliation, read from a server side cursor and handed to the
+ * consumer row by row, so memory use does not depend on the number of exported payments.
+ * Payments of archived months are read from the archive first, see {@link ArchivedPaymentService}, without
+ * holding a database connection; the transaction is only open for the cursor.
+ */
+@Service
+public class PaymentExportService {
+
+    // Bounds used when only one side of the date range is given.
+    private static final LocalDateTime EARLIEST = LocalDate.of(1970, 1, 1).atStartOfDay();
+    private static final LocalDateTime LATEST = LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    private final PaymentRepository paymentRepository;
+    private final ReadYourWrites readYourWrites;
+    private final ArchivedPaymentService archivedPaymentService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public PaymentExportService(PaymentRepository paymentRepository, ReadYourWrites readYourWrites,
+                                ArchivedPaymentService archivedPaymentService, TransactionTemplate transactionTemplate) {
+        this.paymentRepository = paymentRepository;
+        this.readYourWrites = readYourWrites;
+        this.archivedPaymentService = archivedPaymentService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    // Validates the export parameters up front, before the response is committed. Both days are inclusive.
+    public PaymentExportFilter exportFilter(Long userId, LocalDate from, LocalDate to) {
+        if (userId == null && from == null && to == null) {
+            throw new BadRequestException("userId or a date range (from, to) is required");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+
+        var filter = new PaymentExportFilter(userId,
+                from != null ? from.atStartOfDay() : EARLIEST,
+                to != null ? to.plusDays(1).atStartOfDay() : LATEST);
+        // Fails with 503 when an archived month of the range is not available on this instance.
+        archivedPaymentService.archivedMonths(filter.createdFrom(), filter.createdTo());
+        return filter;
+    }
+
+    public void exportPayments(PaymentExportFilter filter, Consumer<PaymentResponse> consumer) {
+        var archivedMonths = archivedPaymentService.archivedMonths(filter.createdFrom(), filter.createdTo());
+        archivedPaymentService.readPayments(archivedMonths, filter.createdFrom(), filter.createdTo(), filter.userId(), consumer);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            readYourWrites.readUserFromPrimaryIfWritten(filter.userId());
+            try (Stream<PaymentResponse> payments = filter.userId() != null
+                    ? paymentRepository.streamExportByUserId(filter.userId(), filter.createdFrom(), filter.createdTo())
+                    : paymentRepository.streamExportByCreatedAt(filter.createdFrom(), filter.createdTo())) {
+                // A month archived after the archive was read is no longer seen by the cursor. Once the cursor
+                // is open no partition can be detached, so checking the archived months again is enough.
+                var archivedSince = archivedPaymentService.archivedMonths(filter.createdFrom(), filter.createdTo()).stream()
+                        .filter(archivedMonth -> !archivedMonths.contains(archivedMonth))
+                        .toList();
+                archivedPaymentService.readPayments(archivedSince, filter.createdFrom(), filter.createdTo(),
+                        filter.userId(), consumer);
+                payments.forEach(consumer);
+            }
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.IdempotencyKeyReusedException;
+import ba.paymentservice.exception.PaymentNotFoundException;
+import ba.paymentservice.model.PaymentIdempotencyKey;
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
+import ba.paymentservice.repository.PaymentRepository;
+import ba.paymentservice.validator.IbanValidator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Payment creation with an Idempotency-Key. A retried request with a known key gets the response of the first
+ * request without validating and inserting it again. Each key is stored with a hash of its request, a key sent
+ * again with a different request is rejected.
+ * Keys are stored with a unique constraint, the responses of recently used keys are also kept in memory to skip
+ * the database lookup.
+ */
+@Service
+public class PaymentIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> recentKeys;
+
+    public PaymentIdempotencyService(PaymentService paymentService,
+                                     PaymentRepository paymentRepository,
+                                     PaymentIdempotencyKeyRepository idempotencyKeyRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${paymentservice.idempotency.cache-max-size}") long cacheMaxSize,
+                                     @Value("${paymentservice.idempotency.cache-ttl}") Duration cacheTtl) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // Returns the response of the payment created with this key, empty when the key has not been used yet.
+    // Meant to be called before the request is validated and rate limited, so that retries stay cheap.
+    public Optional<PaymentResponse> findStoredResponse(PaymentCreationRequest request, String idempotencyKey) {
+        requireValidKey(idempotencyKey);
+        return findStoredResponse(idempotencyKey, requestHash(request));
+    }
+
+    public PaymentResponse createAndSavePayment(PaymentCreationRequest request, String idempotencyKey) {
+        requireValidKey(idempotencyKey);
+        var requestHash = requestHash(request);
+        // Validated before the transaction, which is only held for the inserts.
+        paymentService.validate(request);
+
+        try {
+            // The payment and its key are committed together, a failed insert leaves neither behind.
+            var response = transactionTemplate.execute(status -> {
+                var created = paymentService.saveValidatedPayment(request);
+                idempotencyKeyRepository.saveAndFlush(
+                        new PaymentIdempotencyKey(idempotencyKey, created.getId(), LocalDateTime.now(), requestHash));
+                return PaymentResponse.from(created);
+            });
+            recentKeys.put(idempotencyKey, new StoredResponse(requestHash, response));
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // The key was stored first by a concurrent request or one that was not looked up before.
+            return findStoredResponse(idempotencyKey, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<PaymentResponse> findStoredResponse(String idempotencyKey, String requestHash) {
+        var stored = recentKeys.getIfPresent(idempotencyKey);
+        if (stored == null) {
+            stored = loadStoredResponse(idempotencyKey);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            recentKeys.put(idempotencyKey, stored);
+        }
+        if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+        return Optional.of(stored.response());
+    }
+
+    // The key and its payment are read in one read-write transaction, which goes to the primary: a replica
+    // may not have the key or payment of a request that just committed yet.
+    private StoredResponse loadStoredResponse(String idempotencyKey) {
+        return transactionTemplate.execute(status -> idempotencyKeyRepository.findById(idempotencyKey)
+                .map(key -> new StoredResponse(key.getRequestHash(), loadPaymentResponse(key.getPaymentId())))
+                .orElse(null));
+    }
+
+    private PaymentResponse loadPaymentResponse(Long paymentId) {
+        return paymentRepository.findById(paymentId)
+                .map(PaymentResponse::from)
+                .orElseThrow(() -> new PaymentNotFoundException("Payment not found for ID: " + paymentId));
+    }
+
+    private static void requireValidKey(String idempotencyKey) {
+        if (!StringUtils.hasText(idempotencyKey) || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    // SHA-256 of the request fields as they are stored: amounts compare by value and IBANs without spaces in
+    // upper case, so a retry that only formats them differently matches. Each field is prefixed by its length.
+    static String requestHash(PaymentCreationRequest request) {
+        var canonical = new StringBuilder(256);
+        appendField(canonical, Objects.toString(request.paymentType(), null));
+        appendField(canonical, request.amount() != null ? stripZeros(request.amount()).toPlainString() : null);
+        appendField(canonical, Objects.toString(request.currency(), null));
+        appendField(canonical, IbanValidator.normalize(request.debtorIban()));
+        appendField(canonical, IbanValidator.normalize(request.creditorIban()));
+        appendField(canonical, request.details());
+        appendField(canonical, request.creditorBankBic());
+        appendField(canonical, Objects.toString(request.userId(), null));
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static BigDecimal stripZeros(BigDecimal amount) {
+        return amount.signum() == 0 ? BigDecimal.ZERO : amount.stripTrailingZeros();
+    }
+
+    private static void appendField(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append("-;");
+        } else {
+            canonical.append(value.length()).append(':').append(value).append(';');
+        }
+    }
+
+    // Response of the first request with a key and the hash of that request.
+    private record StoredResponse(String requestHash, PaymentResponse response) {
+    }
+}
@@ -0,0 +1,71 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.dto.PaymentEventType;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.model.OutboxEvent;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes payment events to the outbox table. Events are only written inside the transaction that changes
+ * the payment, so an event exists exactly when the change was committed. {@link OutboxRelay} publishes them.
+ */
+@Service
+public class PaymentOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public PaymentOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentCreated(Payment payment) {
+        outboxEventRepository.save(created(payment, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentsCreated(List<Payment> payments) {
+        var now = LocalDateTime.now();
+        outboxEventRepository.saveAll(payments.stream().map(payment -> created(payment, now)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentCanceled(Payment payment) {
+        outboxEventRepository.save(canceled(new PaymentCancellationResponse(payment.getId(), payment.getCancellationFee()),
+                LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentsCanceled(List<PaymentCancellationResponse> canceled) {
+        var now = LocalDateTime.now();
+        outboxEventRepository.saveAll(canceled.stream().map(payment -> canceled(payment, now)).toList());
+    }
+
+    private OutboxEvent created(Payment payment, LocalDateTime now) {
+        return new OutboxEvent(PaymentEventType.PAYMENT_CREATED, payment.getId(), toJson(PaymentResponse.from(payment)), now);
+    }
+
+    private OutboxEvent canceled(PaymentCancellationResponse payment, LocalDateTime now) {
+        return new OutboxEvent(PaymentEventType.PAYMENT_CANCELED, payment.id(), toJson(payment), now);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize payment event", e);
+        }
+    }
+}
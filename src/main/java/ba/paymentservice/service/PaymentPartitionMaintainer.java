@@ -0,0 +1,139 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.archive.PaymentArchive;
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
+import ba.paymentservice.repository.PaymentPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.YearMonth;
+
+/**
+ * Keeps the monthly payment partitions in shape: creates the partitions of the coming months and moves
+ * partitions older than the hot months into the {@link PaymentArchive}. Payments can only be canceled on
+ * the day they were created, so a past month no longer changes and can be archived as a whole.
+ */
+@Component
+public class PaymentPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPartitionMaintainer.class);
+
+    private final PaymentPartitionRepository partitionRepository;
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository;
+    private final PaymentArchive paymentArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int premakeMonths;
+    private final int hotMonths;
+    private final boolean archiveEnabled;
+
+    @Autowired
+    public PaymentPartitionMaintainer(PaymentPartitionRepository partitionRepository,
+                                      PaymentIdempotencyKeyRepository idempotencyKeyRepository,
+                                      PaymentArchive paymentArchive,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${paymentservice.partitions.premake-months}") int premakeMonths,
+                                      @Value("${paymentservice.partitions.hot-months}") int hotMonths,
+                                      @Value("${paymentservice.archive.enabled}") boolean archiveEnabled) {
+        this(partitionRepository, idempotencyKeyRepository, paymentArchive, transactionTemplate, Clock.systemDefaultZone(),
+                premakeMonths, hotMonths, archiveEnabled);
+    }
+
+    PaymentPartitionMaintainer(PaymentPartitionRepository partitionRepository,
+                               PaymentIdempotencyKeyRepository idempotencyKeyRepository,
+                               PaymentArchive paymentArchive,
+                               TransactionTemplate transactionTemplate,
+                               Clock clock,
+                               int premakeMonths,
+                               int hotMonths,
+                               boolean archiveEnabled) {
+        if (hotMonths < 1) {
+            throw new IllegalArgumentException("paymentservice.partitions.hot-months must be at least 1");
+        }
+        this.partitionRepository = partitionRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.paymentArchive = paymentArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.premakeMonths = premakeMonths;
+        this.hotMonths = hotMonths;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    // Runs on startup and then every maintenance interval. Each step holds an advisory lock,
+    // so only one instance works on the partitions at a time.
+    @Scheduled(fixedDelayString = "${paymentservice.partitions.maintenance-interval}")
+    public void maintain() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (partitionRepository.tryLockMaintenance()) {
+                    createPartitions();
+                }
+            });
+            if (archiveEnabled) {
+                archiveClosedPartitions();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Payment partition maintenance failed, retrying on the next run", e);
+        }
+    }
+
+    void createPartitions() {
+        var currentMonth = YearMonth.now(clock);
+        var existing = partitionRepository.findPartitionMonths();
+        for (int i = 0; i <= premakeMonths; i++) {
+            var month = currentMonth.plusMonths(i);
+            if (!existing.contains(month)) {
+                partitionRepository.createPartition(month);
+                logger.info("Created payment partition for {}", month);
+            }
+        }
+    }
+
+    // One transaction per partition: detaching locks the whole payment table, so it is the last
+    // statement before the commit.
+    void archiveClosedPartitions() {
+        var oldestHotMonth = YearMonth.now(clock).minusMonths(hotMonths - 1L);
+        for (var month : partitionRepository.findPartitionMonths()) {
+            if (month.isBefore(oldestHotMonth)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Another instance may have archived the month in the meantime.
+                    if (partitionRepository.tryLockMaintenance() && partitionRepository.findPartitionMonths().contains(month)) {
+                        archive(month);
+                    }
+                });
+            }
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(oldestHotMonth.atDay(1).atStartOfDay()));
+    }
+
+    // The archive file is complete and synced before the partition is dropped. If the drop does not commit,
+    // the next run writes the file again.
+    private void archive(YearMonth month) {
+        long start = System.nanoTime();
+        try (var writer = paymentArchive.writer(month)) {
+            partitionRepository.streamPartition(month, writer::write);
+            long rows = partitionRepository.countPartition(month);
+            if (writer.written() != rows) {
+                throw new IllegalStateException("Archived " + writer.written() + " of " + rows + " payments of " + month);
+            }
+            writer.commit();
+            // Recorded in the transaction of the drop, readers fail on a recorded month missing from their archive.
+            partitionRepository.recordArchivedMonth(new ArchivedMonth(month, rows, writer.minId(), writer.maxId()));
+            partitionRepository.dropPartition(month);
+            logger.info("Archived {} payments of {} in {} ms", rows, month, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive payments of " + month, e);
+        }
+    }
+}
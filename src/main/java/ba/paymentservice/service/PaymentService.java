@@ -1,73 +1,165 @@
 package ba.paymentservice.service;
 
+import ba.paymentservice.config.CacheConfig;
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.PaymentBatchItemResult;
+import ba.paymentservice.dto.PaymentBatchResponse;
 import ba.paymentservice.dto.PaymentCancellationResponse;
 import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentIdPage;
+import ba.paymentservice.dto.PaymentType;
 import ba.paymentservice.exception.BadRequestException;
 import ba.paymentservice.exception.PaymentAlreadyCanceledException;
 import ba.paymentservice.exception.PaymentNotFoundException;
+import ba.paymentservice.metrics.LatencyMetrics;
+import ba.paymentservice.metrics.LatencyPhase;
+import ba.paymentservice.model.Money;
 import ba.paymentservice.model.Payment;
 import ba.paymentservice.model.User;
 import ba.paymentservice.repository.PaymentIdProjection;
 import ba.paymentservice.repository.PaymentRepository;
 import ba.paymentservice.repository.UserRepository;
+import ba.paymentservice.validator.IbanValidator;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
+/**
+ * Payment creation, cancellation and queries. Every method that touches the database runs in an explicit
+ * transaction, read-only for queries. Creation validates requests before its transaction starts, so a
+ * connection is only held for the database work.
+ */
 @Service
 public class PaymentService {
 
+    private static final String USER_FOREIGN_KEY = "fk_payment_user";
+
+    // Cancellation fee coefficients, computed once per payment type. The fee itself is computed in numeric
+    // by the cancel statements of PaymentRepository, which is exact.
+    private static final int FEE_SCALE = 2;
+    private static final BigDecimal[] FEE_COEFFICIENTS = new BigDecimal[PaymentType.values().length];
+
+    static {
+        for (var paymentType : PaymentType.values()) {
+            FEE_COEFFICIENTS[paymentType.ordinal()] = BigDecimal.valueOf(feePerHourHundredths(paymentType), FEE_SCALE);
+        }
+    }
+
     private final PaymentRepository paymentRepository;
     private final Validator validator;
     private final PaymentValidationService paymentValidationService;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final LatencyMetrics latencyMetrics;
+    private final PaymentOutbox paymentOutbox;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentSummaryService paymentSummaryService;
+    private final PaymentCancellationCacheEviction cacheEviction;
+    private final ArchivedPaymentService archivedPaymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int maxBatchSize;
+    private final int jdbcBatchSize;
+    private final int maxPageSize;
 
-    public PaymentService(PaymentRepository paymentRepository, Validator validator, PaymentValidationService paymentValidationService, UserRepository userRepository) {
+    public PaymentService(PaymentRepository paymentRepository,
+                          Validator validator,
+                          PaymentValidationService paymentValidationService,
+                          UserRepository userRepository,
+                          EntityManager entityManager,
+                          LatencyMetrics latencyMetrics,
+                          PaymentOutbox paymentOutbox,
+                          ReadYourWrites readYourWrites,
+                          PaymentSummaryService paymentSummaryService,
+                          PaymentCancellationCacheEviction cacheEviction,
+                          ArchivedPaymentService archivedPaymentService,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${paymentservice.batch.max-size}") int maxBatchSize,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int jdbcBatchSize,
+                          @Value("${paymentservice.pagination.max-limit}") int maxPageSize) {
         this.paymentRepository = paymentRepository;
         this.validator = validator;
         this.paymentValidationService = paymentValidationService;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.latencyMetrics = latencyMetrics;
+        this.paymentOutbox = paymentOutbox;
+        this.readYourWrites = readYourWrites;
+        this.paymentSummaryService = paymentSummaryService;
+        this.cacheEviction = cacheEviction;
+        this.archivedPaymentService = archivedPaymentService;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.maxBatchSize = maxBatchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    @Transactional
     public Payment cancelPaymentById(Long paymentId) {
-        var payment = paymentRepository.findById(paymentId)
+        // Checks, fee calculation and update run as one conditional statement,
+        // concurrent cancels of the same payment cannot both succeed.
+        var today = LocalDate.now().atStartOfDay();
+        var canceled = paymentRepository.cancelIfCancelable(paymentId, today, today.plusDays(1),
+                cancellationFeeCoefficient(PaymentType.TYPE1),
+                cancellationFeeCoefficient(PaymentType.TYPE2),
+                cancellationFeeCoefficient(PaymentType.TYPE3));
+        if (canceled.isPresent()) {
+            paymentOutbox.paymentCanceled(canceled.get());
+            paymentSummaryService.paymentsCanceled(List.of(paymentId), today, today.plusDays(1));
+            readYourWrites.paymentWritten(paymentId);
+            // Like the bulk cancel, cached cancellation info is dropped once the fee is committed.
+            cacheEviction.evictAfterCommit(List.of(paymentId));
+            return canceled.get();
+        }
+
+        // Nothing was updated, find out why.
+        var status = paymentRepository.findCancellationStatusById(paymentId)
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found for ID: " + paymentId));
 
-        if (payment.isCanceled()) {
+        if (status.isCanceled()) {
             throw new PaymentAlreadyCanceledException("Payment is already canceled");
         }
-
-        if (!payment.getCreatedAt().toLocalDate().isEqual(LocalDateTime.now().toLocalDate())) {
-            throw new BadRequestException("Payment can only be canceled on the same day it was created");
-        }
-
-        payment.setCancellationFee(calculateCancellationFee(payment));
-        payment.setCanceled(true);
-
-        return paymentRepository.save(payment);
+        throw new BadRequestException("Payment can only be canceled on the same day it was created");
     }
 
-    public Payment createPayment(PaymentCreationRequest request) {
-        // Validate payment.
+    private void validatePayment(PaymentCreationRequest request) {
+        long start = System.nanoTime();
         paymentValidationService.validate(request);
+        latencyMetrics.record(LatencyPhase.PAYMENT_VALIDATION, start);
+    }
 
-        var user = userRepository.findById(request.userId())
-                .orElseThrow(() -> new BadRequestException("User not found for ID: " + request.userId()));
-
+    private Payment buildPayment(PaymentCreationRequest request, User user) {
         return Payment.builder()
                 .paymentType(request.paymentType())
-                .amount(request.amount())
+                .amount(Money.of(request.amount(), request.currency()).toBigDecimal())
                 .currency(request.currency())
-                .debtorIban(request.debtorIban().replace(" ", "").toUpperCase())
-                .creditorIban(request.creditorIban().replace(" ", "").toUpperCase())
+                .debtorIban(IbanValidator.normalize(request.debtorIban()))
+                .creditorIban(IbanValidator.normalize(request.creditorIban()))
                 .details(request.details())
                 .creditorBankBic(request.creditorBankBic())
                 .createdAt(LocalDateTime.now())
@@ -77,16 +169,163 @@ public class PaymentService {
                 .build();
     }
 
+    // The payment and its PAYMENT_CREATED outbox event are committed together. Validation runs before
+    // the transaction starts.
     public Payment createAndSavePayment(PaymentCreationRequest request) {
+        validate(request);
+        return saveValidatedPayment(request);
+    }
+
+    // Bean Validation and the payment type rules of a single payment request.
+    public void validate(PaymentCreationRequest request) {
+        long start = System.nanoTime();
         Set<ConstraintViolation<PaymentCreationRequest>> violations = validator.validate(request);
+        latencyMetrics.record(LatencyPhase.BEAN_VALIDATION, start);
         if (!violations.isEmpty()) {
             throw new ConstraintViolationException(violations);
         }
 
-        var payment = createPayment(request);
-        return paymentRepository.save(payment);
+        validatePayment(request);
+    }
+
+    // Saves a request that passed validate(), in the caller's transaction when there is one.
+    public Payment saveValidatedPayment(PaymentCreationRequest request) {
+        long start = System.nanoTime();
+        try {
+            return transactionTemplate.execute(status -> {
+                // Only the foreign key is needed, a missing user is reported by fk_payment_user on insert.
+                var payment = buildPayment(request, userRepository.getReferenceById(request.userId()));
+                // Flushed right away so a missing user surfaces here and not when an outer transaction commits.
+                var saved = paymentRepository.saveAndFlush(payment);
+                paymentOutbox.paymentCreated(saved);
+                paymentSummaryService.paymentsCreated(List.of(saved));
+                readYourWrites.paymentWritten(saved.getId());
+                readYourWrites.userWritten(request.userId());
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, USER_FOREIGN_KEY)) {
+                throw new BadRequestException("User not found for ID: " + request.userId());
+            }
+            throw e;
+        } finally {
+            latencyMetrics.record(LatencyPhase.REPOSITORY_SAVE, start);
+        }
+    }
+
+    // Items are validated before the transaction, which covers the user lookup and the inserts.
+    // The existing users of the valid items are passed to userAdmission before anything is inserted,
+    // it may reject the whole batch by throwing, e.g. when a user is rate limited.
+    public PaymentBatchResponse createAndSavePayments(List<PaymentCreationRequest> requests,
+                                                      Consumer<Set<Long>> userAdmission) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("Payment batch must contain at least one payment");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("Payment batch must contain at most " + maxBatchSize + " payments");
+        }
+
+        var results = new PaymentBatchItemResult[requests.size()];
+
+        // Validate every item up front, a rejected item does not stop the rest of the batch.
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            var error = validateBatchItem(requests.get(i));
+            if (error != null) {
+                results[i] = PaymentBatchItemResult.rejected(i, error);
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        int created = transactionTemplate.execute(status -> saveBatch(requests, validIndexes, results, userAdmission));
+        return new PaymentBatchResponse(created, requests.size() - created, Arrays.asList(results));
+    }
+
+    // Saves the valid items of a batch and fills in their results, returns the number of created payments.
+    private int saveBatch(List<PaymentCreationRequest> requests, List<Integer> validIndexes, PaymentBatchItemResult[] results,
+                          Consumer<Set<Long>> userAdmission) {
+        // Resolve all referenced users with a single query.
+        Set<Long> userIds = validIndexes.stream()
+                .map(i -> requests.get(i).userId())
+                .collect(Collectors.toSet());
+        long start = System.nanoTime();
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        latencyMetrics.record(LatencyPhase.USER_LOOKUP, start);
+        userAdmission.accept(usersById.keySet());
+
+        List<Payment> payments = new ArrayList<>(validIndexes.size());
+        List<Integer> paymentIndexes = new ArrayList<>(validIndexes.size());
+        for (int i : validIndexes) {
+            var request = requests.get(i);
+            var user = usersById.get(request.userId());
+            if (user == null) {
+                results[i] = PaymentBatchItemResult.rejected(i, "User not found for ID: " + request.userId());
+                continue;
+            }
+            payments.add(buildPayment(request, user));
+            paymentIndexes.add(i);
+        }
+
+        // Persist in chunks matching the JDBC batch size so each flush is sent as one batch
+        // and the persistence context does not grow with the size of the whole batch.
+        start = System.nanoTime();
+        for (int from = 0; from < payments.size(); from += jdbcBatchSize) {
+            int to = Math.min(from + jdbcBatchSize, payments.size());
+            var chunk = payments.subList(from, to);
+            paymentRepository.saveAll(chunk);
+            paymentOutbox.paymentsCreated(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        latencyMetrics.record(LatencyPhase.REPOSITORY_SAVE, start);
+
+        for (int i = 0; i < payments.size(); i++) {
+            int index = paymentIndexes.get(i);
+            results[index] = PaymentBatchItemResult.created(index, payments.get(i).getId());
+        }
+        paymentSummaryService.paymentsCreated(payments);
+        var paymentIds = payments.stream().map(Payment::getId).toList();
+        readYourWrites.paymentsWritten(paymentIds);
+        readYourWrites.usersWritten(usersById.keySet());
+        return payments.size();
+    }
+
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        return e.getCause() instanceof org.hibernate.exception.ConstraintViolationException violation
+                && constraintName.equalsIgnoreCase(violation.getConstraintName());
     }
 
+    // Returns the validation error of a single batch item or null if the item is valid.
+    private String validateBatchItem(PaymentCreationRequest request) {
+        if (request == null) {
+            return "Payment is required";
+        }
+
+        long start = System.nanoTime();
+        Set<ConstraintViolation<PaymentCreationRequest>> violations = validator.validate(request);
+        latencyMetrics.record(LatencyPhase.BEAN_VALIDATION, start);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        start = System.nanoTime();
+        try {
+            paymentValidationService.validate(request);
+        } catch (BadRequestException e) {
+            return e.getMessage();
+        } finally {
+            latencyMetrics.record(LatencyPhase.PAYMENT_VALIDATION, start);
+        }
+        return null;
+    }
+
+    // Read-only methods are served by a read replica when one is configured.
+    @Transactional(readOnly = true)
     public List<Long> getNonCanceledPaymentIds(BigDecimal amount) {
         Optional<BigDecimal> optionalAmount = Optional.ofNullable(amount);
         List<PaymentIdProjection> projections;
@@ -106,14 +345,52 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaymentIdPage getNonCanceledPaymentIdPage(BigDecimal amount, Long afterId, Integer limit) {
+        var cursor = pageCursor(afterId);
+        var pageable = pageable(limit);
+
+        List<Long> ids = amount != null
+                ? paymentRepository.findNonCanceledIdsByAmountAfter(amount, cursor, pageable)
+                : paymentRepository.findNonCanceledIdsAfter(cursor, pageable);
+
+        return toPage(ids, pageable);
+    }
+
+    // Writes every matching ID to the consumer while reading them from a database cursor,
+    // memory use does not depend on the number of payments.
+    @Transactional(readOnly = true)
+    public void streamNonCanceledPaymentIds(BigDecimal amount, LongConsumer consumer) {
+        try (Stream<Long> ids = amount != null
+                ? paymentRepository.streamNonCanceledIdsByAmount(amount)
+                : paymentRepository.streamNonCanceledIds()) {
+            ids.forEach(consumer::accept);
+        }
+    }
+
+    // Cached until the payment is canceled, the cache is bounded in size and entries expire after a TTL.
+    // A payment canceled within the read-your-writes window is read from the primary, a lagging replica
+    // would otherwise put the pre-cancellation state back into the cache.
+    // Payments of archived months are looked up in the archive after the transaction, archived payments no longer change.
+    @Cacheable(cacheNames = CacheConfig.PAYMENT_CANCELLATION_CACHE, key = "#paymentId")
     public PaymentCancellationResponse getPaymentCancellationResponse(Long paymentId) {
-        var payment = paymentRepository.findById(paymentId)
+        var response = readOnlyTransactionTemplate.execute(status -> {
+            readYourWrites.readPaymentFromPrimaryIfWritten(paymentId);
+            return paymentRepository.findCancellationResponseById(paymentId).orElse(null);
+        });
+        if (response != null) {
+            return response;
+        }
+        return archivedPaymentService.findPayment(paymentId)
+                .map(payment -> new PaymentCancellationResponse(payment.id(), payment.cancellationFee()))
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found"));
-
-        return new PaymentCancellationResponse(payment.getId(), payment.getCancellationFee());
     }
 
+    // The user listings only cover the payments still in the database: merging in the archive would read whole
+    // archived months for every page. Archived payments of a user are exported with GET /api/payments/export.
+    @Transactional(readOnly = true)
     public List<Long> getPaymentIdsByUser(Long userId) {
+        readYourWrites.readUserFromPrimaryIfWritten(userId);
         List<PaymentIdProjection> payments = paymentRepository.findByUserId(userId);
 
         if (payments.isEmpty()) {
@@ -125,18 +402,61 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
-    public BigDecimal calculateCancellationFee(Payment payment) {
-        int hourOfCreation = payment.getCreatedAt().getHour();
+    @Transactional(readOnly = true)
+    public PaymentIdPage getPaymentIdPageByUser(Long userId, Long afterId, Integer limit) {
+        readYourWrites.readUserFromPrimaryIfWritten(userId);
+        var pageable = pageable(limit);
+        return toPage(paymentRepository.findIdsByUserIdAfter(userId, pageCursor(afterId), pageable), pageable);
+    }
 
-        BigDecimal coefficient = switch (payment.getPaymentType()) {
-            case TYPE1 -> BigDecimal.valueOf(0.05);
-            case TYPE2 -> BigDecimal.valueOf(0.1);
-            case TYPE3 -> BigDecimal.valueOf(0.15);
+    @Transactional(readOnly = true)
+    public void streamPaymentIdsByUser(Long userId, LongConsumer consumer) {
+        readYourWrites.readUserFromPrimaryIfWritten(userId);
+        try (Stream<Long> ids = paymentRepository.streamIdsByUserId(userId)) {
+            ids.forEach(consumer::accept);
+        }
+    }
+
+    private long pageCursor(Long afterId) {
+        if (afterId == null) {
+            return 0L;
+        }
+        if (afterId < 0) {
+            throw new BadRequestException("afterId must not be negative");
+        }
+        return afterId;
+    }
+
+    private Pageable pageable(Integer limit) {
+        if (limit == null) {
+            return Pageable.ofSize(maxPageSize);
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        return Pageable.ofSize(limit);
+    }
+
+    private PaymentIdPage toPage(List<Long> ids, Pageable pageable) {
+        // A full page means there may be more payments after the last returned ID.
+        Long nextAfterId = ids.size() == pageable.getPageSize() ? ids.get(ids.size() - 1) : null;
+        return new PaymentIdPage(ids, nextAfterId);
+    }
+
+    // The fee is the hour of creation times the coefficient of the payment type, applied by the cancel
+    // statements in PaymentRepository.
+    static BigDecimal cancellationFeeCoefficient(PaymentType paymentType) {
+        return FEE_COEFFICIENTS[paymentType.ordinal()];
+    }
+
+    // Fee per hour of creation in hundredths of the currency unit.
+    private static long feePerHourHundredths(PaymentType paymentType) {
+        return switch (paymentType) {
+            case TYPE1 -> 5;
+            case TYPE2 -> 10;
+            case TYPE3 -> 15;
             // No need for default case as all enum values are covered
         };
-
-        // Calculate and return cancellation fee h = hour of creation * k = coefficient
-        return BigDecimal.valueOf(hourOfCreation).multiply(coefficient);
     }
 
 }
@@ -0,0 +1,29 @@
+package ba.paymentservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Rebuilds the payment summary on startup when started with --paymentservice.summary.rebuild=true.
+@Component
+@ConditionalOnProperty(name = "paymentservice.summary.rebuild", havingValue = "true")
+public class PaymentSummaryRebuildRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSummaryRebuildRunner.class);
+
+    private final PaymentSummaryService paymentSummaryService;
+
+    public PaymentSummaryRebuildRunner(PaymentSummaryService paymentSummaryService) {
+        this.paymentSummaryService = paymentSummaryService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int groups = paymentSummaryService.rebuild();
+        logger.info("Rebuilt payment summary with {} groups in {} ms", groups, (System.nanoTime() - start) / 1_000_000);
+    }
+}
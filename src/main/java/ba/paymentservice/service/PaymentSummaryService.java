@@ -0,0 +1,107 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentSummaryGroup;
+import ba.paymentservice.dto.PaymentSummaryResponse;
+import ba.paymentservice.dto.PaymentSummaryTotal;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.repository.PaymentSummaryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Payment totals from the payment_daily_summary rollup table. Created and canceled payments are added to their
+ * group in the transaction that writes them, so reading totals costs one row per group instead of one per payment.
+ */
+@Service
+public class PaymentSummaryService {
+
+    // Bounds used when only one side of the date range is given.
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final PaymentSummaryRepository paymentSummaryRepository;
+
+    public PaymentSummaryService(PaymentSummaryRepository paymentSummaryRepository) {
+        this.paymentSummaryRepository = paymentSummaryRepository;
+    }
+
+    // The payments have to be flushed, their groups are computed from the payment rows.
+    // The days they were created on bound created_at, so only their partitions are read.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentsCreated(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        List<Long> paymentIds = new ArrayList<>(payments.size());
+        var firstDay = LocalDate.MAX;
+        var lastDay = LocalDate.MIN;
+        for (var payment : payments) {
+            paymentIds.add(payment.getId());
+            var day = payment.getCreatedAt().toLocalDate();
+            firstDay = day.isBefore(firstDay) ? day : firstDay;
+            lastDay = day.isAfter(lastDay) ? day : lastDay;
+        }
+        paymentSummaryRepository.addCreated(paymentIds, firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay());
+    }
+
+    // Payments are canceled by a statement bounded to their creation time, the same bounds are passed here.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentsCanceled(Collection<Long> paymentIds, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (!paymentIds.isEmpty()) {
+            paymentSummaryRepository.addCanceled(paymentIds, createdFrom, createdTo);
+        }
+    }
+
+    // Both days are inclusive.
+    @Transactional(readOnly = true)
+    public PaymentSummaryResponse getSummary(Long userId, LocalDate from, LocalDate to) {
+        if (userId == null && from == null && to == null) {
+            throw new BadRequestException("userId or a date range (from, to) is required");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+
+        var fromDay = from != null ? from : EARLIEST;
+        var toDay = to != null ? to : LATEST;
+        var groups = userId != null
+                ? paymentSummaryRepository.findGroupsByUserId(userId, fromDay, toDay)
+                : paymentSummaryRepository.findGroups(fromDay, toDay);
+        return new PaymentSummaryResponse(groups, totals(groups));
+    }
+
+    // Replaces the groups of the payments still in the payment table with groups computed from them,
+    // e.g. to backfill or repair the table. Groups of archived months are kept.
+    @Transactional
+    public int rebuild() {
+        paymentSummaryRepository.lockForRebuild();
+        paymentSummaryRepository.deleteHotGroups();
+        return paymentSummaryRepository.insertAllGroups();
+    }
+
+    static List<PaymentSummaryTotal> totals(List<PaymentSummaryGroup> groups) {
+        var totals = new EnumMap<Currency, PaymentSummaryTotal>(Currency.class);
+        for (var group : groups) {
+            totals.merge(group.currency(),
+                    new PaymentSummaryTotal(group.currency(), group.paymentCount(), group.totalAmount(),
+                            group.canceledCount(), group.cancellationFees()),
+                    (total, added) -> new PaymentSummaryTotal(total.currency(),
+                            total.paymentCount() + added.paymentCount(),
+                            total.totalAmount().add(added.totalAmount()),
+                            total.canceledCount() + added.canceledCount(),
+                            total.cancellationFees().add(added.cancellationFees())));
+        }
+        return new ArrayList<>(totals.values());
+    }
+}
@@ -1,30 +1,34 @@
 package ba.paymentservice.service;
 
 import ba.paymentservice.dto.PaymentCreationRequest;
-import ba.paymentservice.dto.PaymentType;
-import ba.paymentservice.exception.BadRequestException;
-import ba.paymentservice.validator.*;
+import ba.paymentservice.exception.PaymentValidationException;
+import ba.paymentservice.validator.CompiledPaymentRules;
+import ba.paymentservice.validator.PaymentRule;
+import ba.paymentservice.validator.PaymentRules;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class PaymentValidationService {
-    private final Map<PaymentType, PaymentValidator> validatorMap;
 
-    public PaymentValidationService(List<PaymentValidator> validators) {
-        this.validatorMap = validators.stream()
-                .collect(Collectors.toMap(PaymentValidator::getSupportedPaymentType, v -> v, (v1,v2) -> v1, () -> new EnumMap<>(PaymentType.class)));
+    // Compiled once, checking a request only reads the rule tables.
+    private final CompiledPaymentRules rules;
+
+    @Autowired
+    public PaymentValidationService() {
+        this(PaymentRules.DEFAULT);
+    }
+
+    public PaymentValidationService(List<PaymentRule> rules) {
+        this.rules = CompiledPaymentRules.compile(rules);
     }
 
     public void validate(PaymentCreationRequest request) {
-        var validator = validatorMap.get(request.paymentType());
-        if (validator == null) {
-            throw new BadRequestException("Invalid payment type");
+        var violations = rules.check(request);
+        if (!violations.isEmpty()) {
+            throw new PaymentValidationException(violations);
         }
-        validator.validate(request);
     }
 }
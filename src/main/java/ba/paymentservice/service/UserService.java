@@ -1,20 +1,28 @@
 package ba.paymentservice.service;
 
+import ba.paymentservice.config.CacheConfig;
 import ba.paymentservice.dto.UserCreationRequest;
 import ba.paymentservice.exception.BadRequestException;
 import ba.paymentservice.model.User;
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
 import ba.paymentservice.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PaymentIdempotencyKeyRepository idempotencyKeyRepository) {
         this.userRepository = userRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
     }
 
+    // The username check and the insert run in one transaction, the unique constraint still guards concurrent requests.
+    @Transactional
     public User createUser(UserCreationRequest request) {
         if (userRepository.existsByUsername(request.username())) {
             throw new BadRequestException("Username already exists");
@@ -26,7 +34,14 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // Deleting a user deletes their payments, cached cancellation info of those payments is dropped as well.
+    // The idempotency keys of the payments go first, there is no foreign key to delete them with the payments:
+    // a retry with such a key is then a new request instead of failing on the missing payment (once the response
+    // kept in memory by PaymentIdempotencyService has expired).
+    @CacheEvict(cacheNames = CacheConfig.PAYMENT_CANCELLATION_CACHE, allEntries = true)
+    @Transactional
     public void deleteUser(Long userId) {
+        idempotencyKeyRepository.deleteByUserId(userId);
         userRepository.deleteById(userId);
     }
 }
@@ -0,0 +1,33 @@
+package ba.paymentservice.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * ISO 9362 BIC format check without regex: four letter bank code, two letter country code,
+ * two character location code and an optional three character branch code.
+ */
+public class BicValidator implements ConstraintValidator<ValidBic, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        // The BIC is optional, types requiring it are checked by the payment rules.
+        return value == null || value.isEmpty() || isValidBic(value);
+    }
+
+    public static boolean isValidBic(CharSequence value) {
+        int length = value.length();
+        if (length != 8 && length != 11) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            boolean letter = c >= 'A' && c <= 'Z';
+            boolean digit = c >= '0' && c <= '9';
+            if (i < 6 ? !letter : !(letter || digit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package ba.paymentservice.validator;
+
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payment rules compiled into flat tables indexed by {@link PaymentType} ordinal. Allowed currencies and
+ * required fields are bit masks, so a request is checked with a few mask operations and all violations
+ * are collected in one pass. A valid request does not allocate. The amount is checked by Bean Validation.
+ */
+public final class CompiledPaymentRules {
+
+    private static final int FIELD_COUNT = PaymentField.values().length;
+    private static final PaymentField[] FIELDS = PaymentField.values();
+    // Bit of a missing currency, only set in the mask of types that accept any currency.
+    private static final int NO_CURRENCY = 1 << 31;
+    private static final int ANY_CURRENCY = -1;
+
+    private final boolean[] defined;
+    private final int[] allowedCurrencies;
+    private final String[] currencyMessages;
+    private final int[] requiredFields;
+    private final String[] fieldMessages;
+
+    private CompiledPaymentRules(int typeCount) {
+        this.defined = new boolean[typeCount];
+        this.allowedCurrencies = new int[typeCount];
+        this.currencyMessages = new String[typeCount];
+        this.requiredFields = new int[typeCount];
+        this.fieldMessages = new String[typeCount * FIELD_COUNT];
+    }
+
+    public static CompiledPaymentRules compile(List<PaymentRule> rules) {
+        var compiled = new CompiledPaymentRules(PaymentType.values().length);
+        for (var rule : rules) {
+            int type = rule.paymentType().ordinal();
+            if (compiled.defined[type]) {
+                throw new IllegalStateException("Duplicate rules for payment type " + rule.paymentType());
+            }
+            compiled.defined[type] = true;
+
+            if (rule.currencies().isEmpty()) {
+                compiled.allowedCurrencies[type] = ANY_CURRENCY;
+            } else {
+                for (var currency : rule.currencies()) {
+                    compiled.allowedCurrencies[type] |= 1 << currency.ordinal();
+                }
+                compiled.currencyMessages[type] = rule.currencyMessage();
+            }
+
+            for (var required : rule.requiredFields().entrySet()) {
+                int field = required.getKey().ordinal();
+                compiled.requiredFields[type] |= 1 << field;
+                compiled.fieldMessages[type * FIELD_COUNT + field] = required.getValue();
+            }
+        }
+        return compiled;
+    }
+
+    // Returns the violated rule messages in declaration order of the fields, currency first. Empty when valid.
+    public List<String> check(PaymentCreationRequest request) {
+        var paymentType = request.paymentType();
+        if (paymentType == null || !defined[paymentType.ordinal()]) {
+            return List.of("Invalid payment type");
+        }
+        int type = paymentType.ordinal();
+
+        int currencyBit = request.currency() == null ? NO_CURRENCY : 1 << request.currency().ordinal();
+        int currencyAllowed = allowedCurrencies[type] & currencyBit;
+        int required = requiredFields[type];
+        int missing = required & ~presentFields(request, required);
+        if (currencyAllowed != 0 && missing == 0) {
+            return List.of();
+        }
+
+        List<String> violations = new ArrayList<>(1 + Integer.bitCount(missing));
+        if (currencyAllowed == 0) {
+            violations.add(currencyMessages[type]);
+        }
+        for (int bits = missing; bits != 0; bits &= bits - 1) {
+            violations.add(fieldMessages[type * FIELD_COUNT + Integer.numberOfTrailingZeros(bits)]);
+        }
+        return violations;
+    }
+
+    private static int presentFields(PaymentCreationRequest request, int fields) {
+        int present = 0;
+        for (int bits = fields; bits != 0; bits &= bits - 1) {
+            int field = Integer.numberOfTrailingZeros(bits);
+            if (hasText(FIELDS[field].valueOf(request))) {
+                present |= 1 << field;
+            }
+        }
+        return present;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,114 @@
+package ba.paymentservice.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * ISO 13616 IBAN check without regex and without intermediate strings: country code, per-country length
+ * and the mod-97 checksum are verified in two passes over the characters. Spaces are ignored and
+ * letters may be lower case, as in the printed IBAN format.
+ */
+public class IbanValidator implements ConstraintValidator<ValidIban, String> {
+
+    // IBAN lengths from the SWIFT IBAN registry, two letter country code followed by the length.
+    private static final String COUNTRY_LENGTHS =
+            "AD24AE23AL28AT20AZ28BA20BE16BG22BH22BI27BR29BY28CH21CR22CY28CZ24DE22DJ27DK18DO28EE20EG29ES24"
+                    + "FI18FK18FO18FR27GB22GE22GI23GL18GR27GT28HR21HU28IE22IL23IQ23IS26IT27JO30KW30KZ20LB28LC32"
+                    + "LI21LT20LU20LV21LY25MC27MD24ME22MK19MN20MR27MT31MU30NI28NL18NO15OM23PK24PL28PS29PT25QA29"
+                    + "RO24RS22RU33SA24SC31SD18SE24SI19SK24SM27SO23ST25SV28TL23TN24TR26UA29VA22VG24XK20";
+
+    private static final byte[] LENGTHS = new byte[26 * 26];
+
+    static {
+        for (int i = 0; i < COUNTRY_LENGTHS.length(); i += 4) {
+            int country = (COUNTRY_LENGTHS.charAt(i) - 'A') * 26 + COUNTRY_LENGTHS.charAt(i + 1) - 'A';
+            LENGTHS[country] = (byte) Integer.parseInt(COUNTRY_LENGTHS, i + 2, i + 4, 10);
+        }
+    }
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        // Presence is checked by @NotBlank.
+        return value == null || isValidIban(value);
+    }
+
+    public static boolean isValidIban(CharSequence value) {
+        int length = 0;
+        int country = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            int upper = toUpper(c);
+            boolean letter = upper >= 'A' && upper <= 'Z';
+            boolean digit = c >= '0' && c <= '9';
+            // Country code letters, check digits, then alphanumeric account identifier.
+            if (length < 2 ? !letter : length < 4 ? !digit : !(letter || digit)) {
+                return false;
+            }
+            if (length < 2) {
+                country = country * 26 + upper - 'A';
+            }
+            length++;
+        }
+        if (length < 5 || LENGTHS[country] != length) {
+            return false;
+        }
+
+        // The first four characters are moved to the end, letters count as 10..35.
+        int remainder = 0;
+        int position = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != ' ' && position++ >= 4) {
+                remainder = mod97(remainder, c);
+            }
+        }
+        position = 0;
+        for (int i = 0; i < value.length() && position < 4; i++) {
+            char c = value.charAt(i);
+            if (c != ' ') {
+                remainder = mod97(remainder, c);
+                position++;
+            }
+        }
+        return remainder == 1;
+    }
+
+    // Removes spaces and upper-cases letters. Returns the value itself when it is already normalized.
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        int i = 0;
+        while (i < value.length() && value.charAt(i) != ' ' && toUpper(value.charAt(i)) == value.charAt(i)) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+
+        char[] normalized = new char[value.length()];
+        value.getChars(0, i, normalized, 0);
+        int length = i;
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != ' ') {
+                normalized[length++] = (char) toUpper(c);
+            }
+        }
+        return new String(normalized, 0, length);
+    }
+
+    private static int mod97(int remainder, char c) {
+        int upper = toUpper(c);
+        return upper >= 'A' && upper <= 'Z'
+                ? (remainder * 100 + upper - 'A' + 10) % 97
+                : (remainder * 10 + c - '0') % 97;
+    }
+
+    private static int toUpper(char c) {
+        return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+    }
+}
@@ -0,0 +1,20 @@
+package ba.paymentservice.validator;
+
+import ba.paymentservice.dto.PaymentCreationRequest;
+
+// Text fields of a payment request that rules can require.
+public enum PaymentField {
+    DEBTOR_IBAN,
+    CREDITOR_IBAN,
+    DETAILS,
+    CREDITOR_BANK_BIC;
+
+    String valueOf(PaymentCreationRequest request) {
+        return switch (this) {
+            case DEBTOR_IBAN -> request.debtorIban();
+            case CREDITOR_IBAN -> request.creditorIban();
+            case DETAILS -> request.details();
+            case CREDITOR_BANK_BIC -> request.creditorBankBic();
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package ba.paymentservice.validator;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Declarative rules of one payment type: the allowed currencies (any when empty) and the required fields,
+ * each with the message reported when it is violated.
+ */
+public record PaymentRule(PaymentType paymentType,
+                          Set<Currency> currencies,
+                          String currencyMessage,
+                          Map<PaymentField, String> requiredFields) {
+
+    public static PaymentRule forType(PaymentType paymentType) {
+        return new PaymentRule(paymentType, Set.of(), null, Map.of());
+    }
+
+    public PaymentRule currency(Currency currency, String message) {
+        var allowed = EnumSet.of(currency);
+        allowed.addAll(currencies);
+        return new PaymentRule(paymentType, Collections.unmodifiableSet(allowed), message, requiredFields);
+    }
+
+    public PaymentRule requires(PaymentField field, String message) {
+        var required = new EnumMap<PaymentField, String>(PaymentField.class);
+        required.putAll(requiredFields);
+        required.put(field, message);
+        return new PaymentRule(paymentType, currencies, currencyMessage, Collections.unmodifiableMap(required));
+    }
+}
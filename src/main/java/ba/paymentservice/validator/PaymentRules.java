@@ -0,0 +1,27 @@
+package ba.paymentservice.validator;
+
+import java.util.List;
+
+import static ba.paymentservice.dto.Currency.EUR;
+import static ba.paymentservice.dto.Currency.USD;
+import static ba.paymentservice.dto.PaymentType.TYPE1;
+import static ba.paymentservice.dto.PaymentType.TYPE2;
+import static ba.paymentservice.dto.PaymentType.TYPE3;
+
+// Rules per payment type. A new payment type only needs an entry here.
+public final class PaymentRules {
+
+    public static final List<PaymentRule> DEFAULT = List.of(
+            PaymentRule.forType(TYPE1)
+                    .currency(EUR, "Currency must be EUR for payment TYPE1")
+                    .requires(PaymentField.DETAILS, "Details are required for payment type TYPE1"),
+            PaymentRule.forType(TYPE2)
+                    .currency(USD, "Currency must be USD for payment TYPE2"),
+            PaymentRule.forType(TYPE3)
+                    .requires(PaymentField.CREDITOR_IBAN, "Creditor IBAN is required for TYPE3 payment")
+                    .requires(PaymentField.CREDITOR_BANK_BIC, "Creditor bank BIC required for TYPE3 payment")
+    );
+
+    private PaymentRules() {
+    }
+}
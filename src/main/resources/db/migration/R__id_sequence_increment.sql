@@ -0,0 +1,5 @@
+-- Keeps the sequence increment equal to paymentservice.id.allocation-size.
+-- Re-applied by Flyway whenever the configured allocation size changes.
+alter sequence payment_seq increment by ${id_allocation_size};
+alter sequence users_seq increment by ${id_allocation_size};
+alter sequence payment_outbox_seq increment by ${id_allocation_size};
@@ -0,0 +1,56 @@
+-- Range partitions of payment by created_at month. Queries with a created_at range (cancellation, export by date)
+-- only touch the matching partitions, closed months are archived and dropped by PaymentPartitionMaintainer.
+-- The primary key has to contain the partition key, so other tables can no longer reference payment (id).
+alter table payment_idempotency_key drop constraint if exists payment_idempotency_key_payment_id_fkey;
+
+alter table payment rename to payment_unpartitioned;
+
+create table payment (
+    id                bigint         not null,
+    version           bigint,
+    payment_type      varchar(255)   not null,
+    amount            numeric(18, 2) not null,
+    currency          varchar(255)   not null,
+    debtor_iban       varchar(34)    not null,
+    creditor_iban     varchar(34)    not null,
+    details           varchar(255),
+    creditor_bank_bic varchar(11)    not null,
+    created_at        timestamp(6)   not null,
+    canceled          boolean        not null,
+    cancellation_fee  numeric(18, 2) not null,
+    user_id           bigint
+) partition by range (created_at);
+
+-- One partition per month from the oldest payment up to two months ahead, named payment_pYYYY_MM.
+do $$
+declare
+    partition_start date := date_trunc('month', coalesce((select min(created_at) from payment_unpartitioned), now()));
+    partition_last  date := date_trunc('month', now()) + interval '2 months';
+begin
+    while partition_start <= partition_last loop
+        execute format('create table %I partition of payment for values from (%L) to (%L)',
+                       'payment_p' || to_char(partition_start, 'YYYY_MM'),
+                       partition_start, partition_start + interval '1 month');
+        partition_start := partition_start + interval '1 month';
+    end loop;
+end $$;
+
+-- Catches rows outside of the created partitions, it stays empty as long as partitions are created ahead.
+create table payment_default partition of payment default;
+
+insert into payment (id, version, payment_type, amount, currency, debtor_iban, creditor_iban, details,
+                     creditor_bank_bic, created_at, canceled, cancellation_fee, user_id)
+select id, version, payment_type, amount, currency, debtor_iban, creditor_iban, details,
+       creditor_bank_bic, created_at, canceled, cancellation_fee, user_id
+from payment_unpartitioned;
+
+drop table payment_unpartitioned;
+
+alter table payment add constraint payment_pkey primary key (id, created_at);
+alter table payment add constraint fk_payment_user foreign key (user_id) references users (id);
+
+-- Same indexes as before (V3, V6), created on every partition.
+create index idx_payment_not_canceled on payment (id) where canceled = false;
+create index idx_payment_canceled_amount on payment (canceled, amount, id);
+create index idx_payment_user_id on payment (user_id, id);
+create index idx_payment_created_at on payment (created_at, id);
@@ -0,0 +1,3 @@
+-- SHA-256 of the request that used the key, a retry with another request body is rejected.
+-- Keys stored before have no hash and accept any request.
+alter table payment_idempotency_key add column request_hash varchar(64);
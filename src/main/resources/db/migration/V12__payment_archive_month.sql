@@ -0,0 +1,9 @@
+-- Months moved to the payment archive, recorded by PaymentPartitionMaintainer in the transaction that drops their
+-- partition. Readers of the archive know which month files have to exist and in which month a payment id can be.
+create table payment_archive_month (
+    month         date      primary key,
+    payment_count bigint    not null,
+    min_id        bigint,
+    max_id        bigint,
+    archived_at   timestamp not null
+);
@@ -0,0 +1,23 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version and skip this script.
+create table if not exists users (
+    id       bigint generated by default as identity primary key,
+    version  bigint,
+    username varchar(255) not null unique
+);
+
+create table if not exists payment (
+    id                bigint generated by default as identity primary key,
+    version           bigint,
+    payment_type      varchar(255)   not null,
+    amount            numeric(38, 2) not null,
+    currency          varchar(255)   not null,
+    debtor_iban       varchar(34)    not null,
+    creditor_iban     varchar(34)    not null,
+    details           varchar(255),
+    creditor_bank_bic varchar(11)    not null,
+    created_at        timestamp(6)   not null,
+    canceled          boolean        not null,
+    cancellation_fee  numeric(38, 2) not null,
+    user_id           bigint references users (id)
+);
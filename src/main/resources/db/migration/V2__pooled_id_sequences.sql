@@ -0,0 +1,15 @@
+-- Ids are handed out from pooled sequences instead of identity columns, so Hibernate
+-- can assign ids in memory and batch inserts.
+create sequence if not exists payment_seq;
+create sequence if not exists users_seq;
+
+alter sequence payment_seq increment by ${id_allocation_size};
+alter sequence users_seq increment by ${id_allocation_size};
+
+-- The pooled optimizer uses (value - increment, value] for each sequence value,
+-- so the next value has to be one full increment above the ids already in use.
+select setval('payment_seq', (select coalesce(max(id), 0) from payment) + ${id_allocation_size}, false);
+select setval('users_seq', (select coalesce(max(id), 0) from users) + ${id_allocation_size}, false);
+
+alter table payment alter column id drop identity if exists;
+alter table users alter column id drop identity if exists;
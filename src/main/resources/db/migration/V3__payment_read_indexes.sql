@@ -0,0 +1,11 @@
+-- Indexes for the read paths of PaymentRepository.
+
+-- findByCanceledFalse and the keyset/stream listing of non-canceled payments.
+-- Only non-canceled rows are indexed, ordered by id for keyset pagination.
+create index if not exists idx_payment_not_canceled on payment (id) where canceled = false;
+
+-- findByCanceledAndAmount and the listing filtered by amount, id keeps the result ordered.
+create index if not exists idx_payment_canceled_amount on payment (canceled, amount, id);
+
+-- findByUserId, the keyset/stream listing by user and deletes cascading from users.
+create index if not exists idx_payment_user_id on payment (user_id, id);
@@ -0,0 +1,6 @@
+-- Idempotency-Key values of POST /api/payments, the primary key makes each key unique.
+create table payment_idempotency_key (
+    idempotency_key varchar(255) primary key,
+    payment_id      bigint       not null references payment (id) on delete cascade,
+    created_at      timestamp(6) not null
+);
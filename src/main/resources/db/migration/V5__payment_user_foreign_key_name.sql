@@ -0,0 +1,19 @@
+-- Payments reference users by id only, a missing user is detected through this constraint.
+-- Its generated name differs between databases created by Flyway and by ddl-auto, give it a fixed one.
+do $$
+declare
+    existing_name text;
+begin
+    select con.conname into existing_name
+    from pg_constraint con
+    join pg_attribute att on att.attrelid = con.conrelid and att.attnum = any (con.conkey)
+    where con.conrelid = 'payment'::regclass
+      and con.contype = 'f'
+      and att.attname = 'user_id';
+
+    if existing_name is null then
+        alter table payment add constraint fk_payment_user foreign key (user_id) references users (id);
+    elsif existing_name <> 'fk_payment_user' then
+        execute format('alter table payment rename constraint %I to fk_payment_user', existing_name);
+    end if;
+end $$;
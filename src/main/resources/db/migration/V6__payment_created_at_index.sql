@@ -0,0 +1,2 @@
+-- Payment export by date range, rows are streamed in (created_at, id) order.
+create index if not exists idx_payment_created_at on payment (created_at, id);
@@ -0,0 +1,4 @@
+-- Amounts and fees are fixed-point values with two fraction digits (see Money), 18 digits fit a long in minor units.
+alter table payment
+    alter column amount type numeric(18, 2),
+    alter column cancellation_fee type numeric(18, 2);
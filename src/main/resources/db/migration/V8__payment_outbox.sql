@@ -0,0 +1,11 @@
+-- Payment events, written in the same transaction as the payment change and removed
+-- by the outbox relay once they are published.
+create sequence if not exists payment_outbox_seq increment by ${id_allocation_size};
+
+create table payment_outbox (
+    id         bigint       primary key,
+    event_type varchar(32)  not null,
+    payment_id bigint       not null,
+    payload    text         not null,
+    created_at timestamp(6) not null
+);
@@ -0,0 +1,24 @@
+-- Payment counts and sums per user, day, currency and payment type. Maintained incrementally when payments
+-- are created or canceled (PaymentSummaryRepository), rebuilt from the payment table by PaymentSummaryService.
+create table payment_daily_summary (
+    user_id           bigint         not null references users (id) on delete cascade,
+    created_on        date           not null,
+    currency          varchar(255)   not null,
+    payment_type      varchar(255)   not null,
+    payment_count     bigint         not null,
+    total_amount      numeric(20, 2) not null,
+    canceled_count    bigint         not null,
+    cancellation_fees numeric(20, 2) not null,
+    primary key (user_id, created_on, currency, payment_type)
+);
+
+create index idx_payment_daily_summary_created_on on payment_daily_summary (created_on);
+
+-- Backfill from the existing payments.
+insert into payment_daily_summary (user_id, created_on, currency, payment_type,
+                                   payment_count, total_amount, canceled_count, cancellation_fees)
+select user_id, cast(created_at as date), currency, payment_type,
+       count(*), sum(amount), count(*) filter (where canceled), coalesce(sum(cancellation_fee) filter (where canceled), 0)
+from payment
+where user_id is not null
+group by 1, 2, 3, 4;
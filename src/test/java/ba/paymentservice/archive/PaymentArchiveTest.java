@@ -0,0 +1,122 @@
+package ba.paymentservice.archive;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private PaymentArchive archive;
+
+    @BeforeEach
+    public void setUp() {
+        archive = new PaymentArchive(directory.toString(), true, JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    @Test
+    public void committedMonth_IsReadBackInWrittenOrder() throws IOException {
+        var payments = List.of(
+                payment(1L, 1L, LocalDateTime.of(2025, 1, 3, 9, 0)),
+                payment(2L, 2L, LocalDateTime.of(2025, 1, 20, 17, 30)));
+        try (var writer = archive.writer(YearMonth.of(2025, 1))) {
+            payments.forEach(writer::write);
+            assertEquals(2, writer.written());
+            assertEquals(1L, writer.minId());
+            assertEquals(2L, writer.maxId());
+            writer.commit();
+        }
+
+        var read = new ArrayList<PaymentArchiveRecord>();
+        archive.read(YearMonth.of(2025, 1), read::add);
+
+        assertEquals(payments, read);
+        assertTrue(archive.contains(YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    public void readPayments_FiltersByCreationTimeAndUser() throws IOException {
+        try (var writer = archive.writer(YearMonth.of(2025, 1))) {
+            writer.write(payment(1L, 1L, LocalDateTime.of(2025, 1, 3, 9, 0)));
+            writer.write(payment(2L, 2L, LocalDateTime.of(2025, 1, 20, 17, 30)));
+            writer.write(payment(3L, 1L, LocalDateTime.of(2025, 1, 31, 23, 59)));
+            writer.commit();
+        }
+
+        var ids = new ArrayList<Long>();
+        archive.readPayments(YearMonth.of(2025, 1), LocalDateTime.of(2025, 1, 10, 0, 0), LocalDateTime.of(2025, 2, 2, 0, 0), 1L,
+                payment -> ids.add(payment.id()));
+
+        assertEquals(List.of(3L), ids);
+    }
+
+    @Test
+    public void findPayment_ReturnsPaymentOfMonthById() throws IOException {
+        try (var writer = archive.writer(YearMonth.of(2025, 1))) {
+            writer.write(payment(1L, 1L, LocalDateTime.of(2025, 1, 3, 9, 0)));
+            writer.write(payment(2L, 2L, LocalDateTime.of(2025, 1, 20, 17, 30)));
+            writer.commit();
+        }
+
+        assertEquals(Optional.of(payment(2L, 2L, LocalDateTime.of(2025, 1, 20, 17, 30))),
+                archive.findPayment(YearMonth.of(2025, 1), 2L));
+        assertEquals(Optional.empty(), archive.findPayment(YearMonth.of(2025, 1), 3L));
+    }
+
+    @Test
+    public void whenWriterIsNotCommitted_thenNoFileIsLeft() throws IOException {
+        try (var writer = archive.writer(YearMonth.of(2025, 1))) {
+            writer.write(payment(1L, 1L, LocalDateTime.of(2025, 1, 3, 9, 0)));
+        }
+
+        assertFalse(archive.contains(YearMonth.of(2025, 1)));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void whenArchivingIsEnabledWithRelativeDirectory_thenConstructionFails() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentArchive("archive", true, JsonMapper.builder().build()));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentArchive("", true, JsonMapper.builder().build()));
+        assertDoesNotThrow(() -> new PaymentArchive("", false, JsonMapper.builder().build()));
+    }
+
+    @Test
+    public void archivedRecord_MapsToPaymentResponse() {
+        var createdAt = LocalDateTime.of(2025, 1, 3, 9, 0);
+
+        assertEquals(new PaymentResponse(1L, PaymentType.TYPE1, new BigDecimal("100.00"), Currency.EUR,
+                        "DE89370400440532013000", "DE75512108001245126199", "Rent", null, createdAt,
+                        true, new BigDecimal("0.05")),
+                payment(1L, 7L, createdAt).toResponse());
+    }
+
+    private static PaymentArchiveRecord payment(Long id, Long userId, LocalDateTime createdAt) {
+        return new PaymentArchiveRecord(id, userId, PaymentType.TYPE1, new BigDecimal("100.00"), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", "Rent", null, createdAt,
+                true, new BigDecimal("0.05"));
+    }
+}
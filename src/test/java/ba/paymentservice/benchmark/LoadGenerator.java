@@ -0,0 +1,84 @@
+package ba.paymentservice.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs an operation from a fixed number of concurrent workers and reports throughput and latency percentiles.
+ */
+public final class LoadGenerator {
+
+    @FunctionalInterface
+    public interface Operation {
+        void run(int worker, int iteration) throws Exception;
+    }
+
+    public record Result(String name, int threads, int operations, long errors, Duration elapsed,
+                         long p50Nanos, long p99Nanos, long maxNanos) {
+
+        public double throughput() {
+            return operations * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        public String summary() {
+            return String.format("%s: %d ops by %d threads in %d ms, %.0f ops/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d errors",
+                    name, operations, threads, elapsed.toMillis(), throughput(),
+                    p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6, errors);
+        }
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static Result run(String name, int threads, int operationsPerThread, Operation operation) throws Exception {
+        long[][] latencies = new long[threads][operationsPerThread];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            operation.run(worker, i);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[worker][i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(name, threads, all.length, errors.get(), elapsed,
+                    percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
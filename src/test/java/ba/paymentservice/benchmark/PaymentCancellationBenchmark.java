@@ -0,0 +1,97 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import ba.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures concurrent {@link PaymentService#cancelPaymentById} calls. The cancellation fee is computed by the
+ * conditional cancel statement in SQL, so this covers the fee path end to end: one update per cancel that
+ * checks the creation day and writes the fee.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentCancellationBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int WARMUP_OPERATIONS_PER_THREAD = 100;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentCancelPaymentById() throws Exception {
+        var user = new User();
+        user.setUsername("benchmark-" + UUID.randomUUID());
+        var request = createRequest(userRepository.save(user).getId());
+
+        // Each cancel needs a payment of its own, created today and not canceled yet.
+        var warmupPayments = createPayments(request, WARMUP_OPERATIONS_PER_THREAD);
+        var payments = createPayments(request, OPERATIONS_PER_THREAD);
+
+        LoadGenerator.run("warm-up", THREADS, WARMUP_OPERATIONS_PER_THREAD,
+                (worker, iteration) -> paymentService.cancelPaymentById(
+                        warmupPayments[worker * WARMUP_OPERATIONS_PER_THREAD + iteration].getId()));
+
+        var canceled = new Payment[THREADS * OPERATIONS_PER_THREAD];
+        var result = LoadGenerator.run("cancelPaymentById", THREADS, OPERATIONS_PER_THREAD,
+                (worker, iteration) -> {
+                    int index = worker * OPERATIONS_PER_THREAD + iteration;
+                    canceled[index] = paymentService.cancelPaymentById(payments[index].getId());
+                });
+
+        System.out.println(result.summary());
+        assertEquals(0, result.errors());
+        // TYPE2 is charged 0.10 per hour of creation.
+        var payment = canceled[0];
+        assertEquals(0, new BigDecimal("0.10").multiply(BigDecimal.valueOf(payment.getCreatedAt().getHour()))
+                .compareTo(payment.getCancellationFee()));
+    }
+
+    private Payment[] createPayments(PaymentCreationRequest request, int perThread) throws Exception {
+        var payments = new Payment[THREADS * perThread];
+        LoadGenerator.run("create payments to cancel", THREADS, perThread,
+                (worker, iteration) -> payments[worker * perThread + iteration] = paymentService.createAndSavePayment(request));
+        return payments;
+    }
+
+    private static PaymentCreationRequest createRequest(Long userId) {
+        return new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(25.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF",
+                userId
+        );
+    }
+}
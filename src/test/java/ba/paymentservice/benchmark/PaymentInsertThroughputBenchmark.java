@@ -0,0 +1,81 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import ba.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures insert throughput of concurrent {@link PaymentService#createAndSavePayment} calls.
+ * Subclasses run the same workload with a different id allocation size, allocation size 1 needs
+ * one sequence round-trip per insert like the former identity columns did.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PaymentInsertThroughputBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int WARMUP_OPERATIONS_PER_THREAD = 100;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${paymentservice.id.allocation-size}")
+    private int allocationSize;
+
+    @Test
+    void concurrentCreateAndSavePayment() throws Exception {
+        var user = new User();
+        user.setUsername("benchmark-" + UUID.randomUUID());
+        var request = createRequest(userRepository.save(user).getId());
+
+        LoadGenerator.run("warm-up", THREADS, WARMUP_OPERATIONS_PER_THREAD,
+                (worker, iteration) -> paymentService.createAndSavePayment(request));
+
+        var result = LoadGenerator.run("createAndSavePayment, allocation size " + allocationSize,
+                THREADS, OPERATIONS_PER_THREAD,
+                (worker, iteration) -> paymentService.createAndSavePayment(request));
+
+        System.out.println(result.summary());
+        assertEquals(0, result.errors());
+    }
+
+    private static PaymentCreationRequest createRequest(Long userId) {
+        return new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(25.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF",
+                userId
+        );
+    }
+}
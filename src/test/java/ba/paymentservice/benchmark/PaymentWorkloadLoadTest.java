@@ -0,0 +1,208 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.repository.PaymentPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Repeatable create, cancel and list scenarios against the HTTP API on a Postgres container seeded with
+ * background payments. Each scenario is reported with throughput and latency percentiles on stdout and
+ * appended to {@code build/reports/load-test/results.csv} together with the active profiles, so runs with
+ * different settings can be compared. Rate limits and admission control are off, they would reject the
+ * load of a single client.
+ * Run with {@code ./gradlew loadTest}, {@code -PloadTestProfile=prod} runs it with the production profile.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "paymentservice.rate-limit.enabled=false",
+        "paymentservice.admission.enabled=false",
+        "paymentservice.outbox.sink=memory",
+        "paymentservice.access-log.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PaymentWorkloadLoadTest {
+
+    private static final int WORKERS = 32;
+    private static final int WARMUP_REQUESTS_PER_WORKER = 50;
+    private static final int REQUESTS_PER_WORKER = 200;
+    private static final int BACKGROUND_USERS = 1_000;
+    private static final int BACKGROUND_PAYMENTS = 200_000;
+    private static final Path RESULTS = Path.of("build", "reports", "load-test", "results.csv");
+    private static final Pattern PAYMENT_ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentPartitionRepository partitionRepository;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    // The scenarios run in order on the same seeded database.
+    private static boolean seeded;
+    private static List<Long> userIds;
+    // Payments created by the create scenario, canceled by the cancel scenario.
+    private static final AtomicLongArray createdPaymentIds = new AtomicLongArray(WORKERS * REQUESTS_PER_WORKER);
+
+    @BeforeEach
+    void seed() throws Exception {
+        if (seeded) {
+            return;
+        }
+        // The partition of the current month must exist before rows are inserted, otherwise they land in the
+        // default partition. PaymentPartitionMaintainer may be creating it at the same time.
+        partitionRepository.createPartition(YearMonth.now());
+        // Ids come from the sequences, so they do not collide with the ids Hibernate allocates.
+        jdbcTemplate.update("""
+                insert into users (id, version, username)
+                select nextval('users_seq'), 0, 'load_' || g from generate_series(1, ?) g
+                """, BACKGROUND_USERS);
+        userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+        jdbcTemplate.update("""
+                insert into payment (id, version, payment_type, amount, currency, debtor_iban, creditor_iban,
+                                     details, creditor_bank_bic, created_at, canceled, cancellation_fee, user_id)
+                select nextval('payment_seq'), 0, 'TYPE2', g % 10000 + 1, 'USD', 'DE89370400440532013000',
+                       'DE75512108001245126199', null, 'DEUTDEFF',
+                       greatest(date_trunc('month', now()), now() - (g % 1440) * interval '1 minute'),
+                       g % 20 <> 0, 0, u.id
+                from generate_series(1, ?) g
+                join (select id, row_number() over (order by id) - 1 as n from users) u on u.n = g % ?
+                """, BACKGROUND_PAYMENTS, BACKGROUND_USERS);
+        jdbcTemplate.execute("vacuum analyze");
+
+        LoadGenerator.run("warm-up", WORKERS, WARMUP_REQUESTS_PER_WORKER, (worker, iteration) -> {
+            expectStatus(200, send(HttpRequest.newBuilder(uri("/api/users/" + user(worker) + "/payments?limit=100")).GET()));
+            expectStatus(201, createPayment(worker));
+        });
+        seeded = true;
+    }
+
+    @Test
+    @Order(1)
+    void create() throws Exception {
+        report(LoadGenerator.run("create", WORKERS, REQUESTS_PER_WORKER, (worker, iteration) -> {
+            var response = createPayment(worker);
+            expectStatus(201, response);
+            var matcher = PAYMENT_ID.matcher(response.body());
+            if (matcher.find()) {
+                createdPaymentIds.set(worker * REQUESTS_PER_WORKER + iteration, Long.parseLong(matcher.group(1)));
+            }
+        }));
+    }
+
+    // Cancels the payments of the create scenario, one request each.
+    @Test
+    @Order(2)
+    void cancel() throws Exception {
+        report(LoadGenerator.run("cancel", WORKERS, REQUESTS_PER_WORKER, (worker, iteration) -> {
+            long paymentId = createdPaymentIds.get(worker * REQUESTS_PER_WORKER + iteration);
+            expectStatus(200, send(HttpRequest.newBuilder(uri("/api/payments/" + paymentId + "/cancel"))
+                    .POST(HttpRequest.BodyPublishers.noBody())));
+        }));
+    }
+
+    // Pages of all payments, pages of a user's payments and cancellation info of single payments in turn.
+    @Test
+    @Order(3)
+    void list() throws Exception {
+        report(LoadGenerator.run("list", WORKERS, REQUESTS_PER_WORKER, (worker, iteration) -> {
+            var path = switch (iteration % 3) {
+                case 0 -> "/api/payments?limit=100";
+                case 1 -> "/api/users/" + user(worker + iteration) + "/payments?limit=100";
+                default -> "/api/payments/" + createdPaymentIds.get(worker * REQUESTS_PER_WORKER + iteration);
+            };
+            expectStatus(200, send(HttpRequest.newBuilder(uri(path)).GET()));
+        }));
+    }
+
+    private HttpResponse<String> createPayment(int worker) throws Exception {
+        var body = """
+                {"paymentType":"TYPE2","amount":25.00,"currency":"USD",
+                 "debtorIban":"DE89370400440532013000","creditorIban":"DE75512108001245126199",
+                 "creditorBankBic":"DEUTDEFF","userId":%d}
+                """.formatted(user(worker));
+        return send(HttpRequest.newBuilder(uri("/api/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private Long user(int index) {
+        return userIds.get(index % userIds.size());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void expectStatus(int status, HttpResponse<String> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private void report(LoadGenerator.Result result) throws IOException {
+        var profiles = environment.getActiveProfiles().length == 0
+                ? "default"
+                : String.join("+", environment.getActiveProfiles());
+        System.out.println("[" + profiles + "] " + result.summary());
+
+        Files.createDirectories(RESULTS.getParent());
+        if (Files.notExists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,profiles,scenario,threads,operations,errors,elapsed_ms,"
+                    + "throughput_ops,p50_ms,p99_ms,max_ms\n");
+        }
+        Files.writeString(RESULTS, String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f%n",
+                Instant.now(), profiles, result.name(), result.threads(), result.operations(), result.errors(),
+                result.elapsed().toMillis(), result.throughput(),
+                result.p50Nanos() / 1e6, result.p99Nanos() / 1e6, result.maxNanos() / 1e6), StandardOpenOption.APPEND);
+
+        assertEquals(0, result.errors());
+    }
+}
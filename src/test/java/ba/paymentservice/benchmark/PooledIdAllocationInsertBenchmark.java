@@ -0,0 +1,7 @@
+package ba.paymentservice.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "paymentservice.id.allocation-size=50")
+class PooledIdAllocationInsertBenchmark extends PaymentInsertThroughputBenchmark {
+}
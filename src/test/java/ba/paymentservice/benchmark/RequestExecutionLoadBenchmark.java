@@ -0,0 +1,148 @@
+package ba.paymentservice.benchmark;
+
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the HTTP API with more concurrent clients than there are Tomcat worker threads and reports
+ * throughput and p99 latency. Subclasses run it with platform and virtual request threads.
+ * Virtual thread pinning is recorded with JFR and fails the benchmark.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=50",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.cache.type=none",
+        // All clients share one user and address, the benchmark measures request execution, not the limits.
+        "paymentservice.rate-limit.enabled=false",
+        "paymentservice.admission.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+abstract class RequestExecutionLoadBenchmark {
+
+    private static final int CLIENTS = 200;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 20;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final Pattern PAYMENT_ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test
+    void mixedCreateAndReadLoad() throws Exception {
+        var user = new User();
+        user.setUsername("load-" + UUID.randomUUID());
+        var createBody = paymentJson(userRepository.save(user).getId());
+        var paymentId = createPayment(createBody);
+
+        LoadGenerator.Operation operation = (worker, iteration) -> {
+            var response = iteration % 2 == 0
+                    ? send(HttpRequest.newBuilder(uri("/api/payments"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(createBody)))
+                    : send(HttpRequest.newBuilder(uri("/api/payments/" + paymentId)).GET());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode());
+            }
+        };
+
+        LoadGenerator.run("warm-up", CLIENTS, WARMUP_REQUESTS_PER_CLIENT, operation);
+
+        List<String> pinnedStacks = new CopyOnWriteArrayList<>();
+        LoadGenerator.Result result;
+        try (var recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedStacks.add(describe(event)));
+            recording.startAsync();
+
+            result = LoadGenerator.run((virtualThreads ? "virtual" : "platform") + " request threads",
+                    CLIENTS, REQUESTS_PER_CLIENT, operation);
+
+            // Give the stream a moment to deliver the last events.
+            recording.awaitTermination(Duration.ofSeconds(2));
+        }
+
+        System.out.println(result.summary());
+        pinnedStacks.forEach(stack -> System.out.println("Pinned virtual thread:\n" + stack));
+        assertEquals(0, result.errors());
+        assertTrue(pinnedStacks.isEmpty(), "Virtual threads were pinned " + pinnedStacks.size() + " times");
+    }
+
+    private Long createPayment(String body) throws Exception {
+        var response = send(HttpRequest.newBuilder(uri("/api/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        var matcher = PAYMENT_ID.matcher(response.body());
+        assertTrue(matcher.find(), "Payment was not created: " + response.body());
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "  <no stack trace>";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(RecordedFrame::getMethod)
+                .map(method -> "  at " + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String paymentJson(Long userId) {
+        return """
+                {"paymentType":"TYPE2","amount":25.00,"currency":"USD",
+                 "debtorIban":"DE89370400440532013000","creditorIban":"DE75512108001245126199",
+                 "creditorBankBic":"DEUTDEFF","userId":%d}
+                """.formatted(userId);
+    }
+}
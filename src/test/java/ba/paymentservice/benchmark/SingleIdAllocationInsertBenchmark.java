@@ -0,0 +1,8 @@
+package ba.paymentservice.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Baseline: one id per sequence call, the same number of round-trips as identity columns.
+@TestPropertySource(properties = "paymentservice.id.allocation-size=1")
+class SingleIdAllocationInsertBenchmark extends PaymentInsertThroughputBenchmark {
+}
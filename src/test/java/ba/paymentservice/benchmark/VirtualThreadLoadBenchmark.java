@@ -0,0 +1,7 @@
+package ba.paymentservice.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadLoadBenchmark extends RequestExecutionLoadBenchmark {
+}
@@ -0,0 +1,31 @@
+package ba.paymentservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadReplicaConfigTest {
+
+    @Test
+    public void replicaPool_UsesDriverPropertiesAndCredentialsOfPrimary() {
+        var primary = new HikariDataSource();
+        primary.addDataSourceProperty("reWriteBatchedInserts", "true");
+        var properties = new DataSourceProperties();
+        properties.setUsername("payments");
+        properties.setPassword("secret");
+
+        try (var replica = ReadReplicaConfig.replicaPool(1, "jdbc:postgresql://replica:5432/payments-db", primary,
+                properties, 5, Duration.ofSeconds(2))) {
+            assertEquals("true", replica.getDataSourceProperties().getProperty("reWriteBatchedInserts"));
+            assertEquals("payments", replica.getUsername());
+            assertEquals("secret", replica.getPassword());
+            assertEquals("replica-1", replica.getPoolName());
+            assertTrue(replica.isReadOnly());
+            assertEquals(5, replica.getMaximumPoolSize());
+        }
+    }
+}
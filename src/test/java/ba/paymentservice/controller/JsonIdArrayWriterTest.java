@@ -0,0 +1,35 @@
+package ba.paymentservice.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class JsonIdArrayWriterTest {
+
+    @Test
+    public void finish_ShouldCloseArray() throws Exception {
+        var output = new ByteArrayOutputStream();
+        var writer = new JsonIdArrayWriter(output);
+        writer.accept(1L);
+        writer.accept(2L);
+        writer.finish();
+
+        assertEquals("[1,2]", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenStreamFailsBeforeFinish_thenArrayIsNotClosed() throws Exception {
+        var output = new ByteArrayOutputStream();
+        var writer = new JsonIdArrayWriter(output);
+        for (long id = 0; id < 10_000; id++) {
+            writer.accept(id);
+        }
+
+        // Only full write buffers reached the output, the array is left open.
+        assertFalse(output.toString(StandardCharsets.UTF_8).endsWith("]"));
+    }
+}
@@ -1,12 +1,30 @@
 package ba.paymentservice.controller;
 
+import ba.paymentservice.config.RateLimitConfig;
+import ba.paymentservice.dto.BulkCancellationRequest;
+import ba.paymentservice.dto.BulkCancellationResponse;
 import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentBatchItemResult;
+import ba.paymentservice.dto.PaymentBatchResponse;
 import ba.paymentservice.dto.PaymentCancellationResponse;
 import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentExportFilter;
+import ba.paymentservice.dto.PaymentSummaryGroup;
+import ba.paymentservice.dto.PaymentSummaryResponse;
+import ba.paymentservice.dto.PaymentSummaryTotal;
+import ba.paymentservice.dto.PaymentIdPage;
+import ba.paymentservice.dto.PaymentResponse;
 import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
 import ba.paymentservice.exception.GlobalExceptionHandler;
+import ba.paymentservice.exception.IdempotencyKeyReusedException;
 import ba.paymentservice.exception.PaymentNotFoundException;
 import ba.paymentservice.model.Payment;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import ba.paymentservice.service.BulkPaymentCancellationService;
+import ba.paymentservice.service.PaymentExportService;
+import ba.paymentservice.service.PaymentSummaryService;
+import ba.paymentservice.service.PaymentIdempotencyService;
 import ba.paymentservice.service.PaymentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -17,13 +35,23 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +66,21 @@ public class PaymentControllerTest {
     @MockitoBean
     private PaymentService paymentService;
 
+    @MockitoBean
+    private PaymentIdempotencyService paymentIdempotencyService;
+
+    @MockitoBean
+    private BulkPaymentCancellationService bulkPaymentCancellationService;
+
+    @MockitoBean
+    private PaymentExportService paymentExportService;
+
+    @MockitoBean
+    private PaymentSummaryService paymentSummaryService;
+
+    @MockitoBean(name = RateLimitConfig.USER_RATE_LIMITER)
+    private TokenBucketRateLimiter userRateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -48,10 +91,10 @@ public class PaymentControllerTest {
                 PaymentType.TYPE1,
                 BigDecimal.valueOf(150.00),
                 Currency.EUR,
-                "DE12345678901234",
-                "DE09876543210987",
+                "DE89370400440532013000",
+                "DE75512108001245126199",
                 "Invoice #123",
-                "BIC1234567",
+                "DEUTDEFF500",
                 1L
         );
 
@@ -60,10 +103,10 @@ public class PaymentControllerTest {
                 .paymentType(PaymentType.TYPE1)
                 .amount(BigDecimal.valueOf(150.00))
                 .currency(Currency.EUR)
-                .debtorIban("DE12345678901234")
-                .creditorIban("DE09876543210987")
+                .debtorIban("DE89370400440532013000")
+                .creditorIban("DE75512108001245126199")
                 .details("Invoice #123")
-                .creditorBankBic("BIC1234567")
+                .creditorBankBic("DEUTDEFF500")
                 .createdAt(LocalDateTime.now())
                 .canceled(false)
                 .cancellationFee(BigDecimal.ZERO)
@@ -88,6 +131,195 @@ public class PaymentControllerTest {
                 .andExpect(jsonPath("$.cancellationFee").value(payment.getCancellationFee().doubleValue()));
     }
 
+    @Test
+    public void createPayment_WithInvalidIbanChecksum_ShouldReturnBadRequest() throws Exception {
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(20.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126198", // Last digit changed, mod-97 checksum fails
+                null,
+                "DEUTDEFF500",
+                1L
+        );
+
+        mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(paymentService, Mockito.never()).createAndSavePayment(any());
+    }
+
+    @Test
+    public void createPayment_WithIdempotencyKey_ShouldUseIdempotencyService() throws Exception {
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(20.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF500",
+                1L
+        );
+
+        Mockito.when(paymentIdempotencyService.findStoredResponse(any(PaymentCreationRequest.class), eq("retry-key-1")))
+                .thenReturn(Optional.empty());
+        Mockito.when(paymentIdempotencyService.createAndSavePayment(any(PaymentCreationRequest.class), eq("retry-key-1")))
+                .thenReturn(idempotentResponse(7L));
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "retry-key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7L));
+
+        Mockito.verify(userRateLimiter).tryAcquire(1L);
+        Mockito.verify(paymentService, Mockito.never()).createAndSavePayment(any());
+    }
+
+    @Test
+    public void createPayment_WhenIdempotencyKeyIsKnown_ShouldReturnStoredResponseWithoutRateLimiting() throws Exception {
+        // Not a valid request, a stored response is returned before validation.
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE2, BigDecimal.valueOf(20.00), Currency.USD, "invalid", "invalid", null, null, 1L);
+
+        Mockito.when(paymentIdempotencyService.findStoredResponse(any(PaymentCreationRequest.class), eq("retry-key-2")))
+                .thenReturn(Optional.of(idempotentResponse(8L)));
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "retry-key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(8L));
+
+        Mockito.verifyNoInteractions(userRateLimiter);
+        Mockito.verify(paymentIdempotencyService, Mockito.never()).createAndSavePayment(any(), any());
+    }
+
+    @Test
+    public void createPayment_WhenIdempotencyKeyWasUsedWithOtherRequest_ShouldReturnUnprocessableEntity() throws Exception {
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE2, BigDecimal.valueOf(20.00), Currency.USD,
+                "DE89370400440532013000", "DE75512108001245126199", null, "DEUTDEFF500", 1L);
+
+        Mockito.when(paymentIdempotencyService.findStoredResponse(any(PaymentCreationRequest.class), eq("retry-key-3")))
+                .thenThrow(new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request"));
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "retry-key-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCode").value(422));
+
+        Mockito.verify(paymentIdempotencyService, Mockito.never()).createAndSavePayment(any(), any());
+    }
+
+    private static PaymentResponse idempotentResponse(Long id) {
+        return new PaymentResponse(id, PaymentType.TYPE2, new BigDecimal("20.00"), Currency.USD,
+                "DE89370400440532013000", "DE75512108001245126199", null, "DEUTDEFF500",
+                LocalDateTime.now(), false, BigDecimal.ZERO);
+    }
+
+    @Test
+    public void createPayment_WhenUserRateLimitExceeded_ShouldReturnTooManyRequests() throws Exception {
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(20.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF500",
+                1L
+        );
+
+        Mockito.when(userRateLimiter.tryAcquire(1L)).thenReturn(1_500_000_000L);
+
+        mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value(429));
+
+        Mockito.verify(paymentService, Mockito.never()).createAndSavePayment(any());
+    }
+
+    // --- createPayments (batch) tests ---
+    @Test
+    public void createPayments_ShouldReturnPerItemResults() throws Exception {
+        PaymentCreationRequest valid = new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(20.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                null,
+                1L
+        );
+        PaymentCreationRequest invalid = new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(20.00),
+                Currency.EUR,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                null,
+                1L
+        );
+
+        PaymentBatchResponse response = new PaymentBatchResponse(1, 1, List.of(
+                PaymentBatchItemResult.created(0, 10L),
+                PaymentBatchItemResult.rejected(1, "Currency must be USD for payment TYPE2")
+        ));
+
+        Mockito.when(paymentService.createAndSavePayments(any(), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/api/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].paymentId").value(10L))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value("Currency must be USD for payment TYPE2"));
+    }
+
+    @Test
+    public void createPayments_WhenRateLimitOfAnyUserExceeded_ShouldReturnTooManyRequests() throws Exception {
+        PaymentCreationRequest first = new PaymentCreationRequest(
+                PaymentType.TYPE2, BigDecimal.valueOf(20.00), Currency.USD,
+                "DE89370400440532013000", "DE75512108001245126199", null, null, 1L);
+        PaymentCreationRequest second = new PaymentCreationRequest(
+                PaymentType.TYPE2, BigDecimal.valueOf(20.00), Currency.USD,
+                "DE89370400440532013000", "DE75512108001245126199", null, null, 2L);
+
+        // The service admits the existing users of the validated batch before inserting.
+        Mockito.when(paymentService.createAndSavePayments(any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Set<Long>>>getArgument(1).accept(Set.of(1L, 2L));
+            return new PaymentBatchResponse(3, 0, List.of());
+        });
+        Mockito.when(userRateLimiter.tryAcquireAll(Set.of(1L, 2L))).thenReturn(1L);
+
+        mockMvc.perform(post("/api/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, first, second))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        Mockito.verify(userRateLimiter, Mockito.never()).tryAcquire(any());
+    }
+
     // --- cancelPayment tests ---
     @Test
     public void cancelPayment_ShouldReturnCanceledPayment() throws Exception {
@@ -97,10 +329,10 @@ public class PaymentControllerTest {
                 .paymentType(PaymentType.TYPE1)
                 .amount(BigDecimal.valueOf(150.00))
                 .currency(Currency.EUR)
-                .debtorIban("DE12345678901234")
-                .creditorIban("DE09876543210987")
+                .debtorIban("DE89370400440532013000")
+                .creditorIban("DE75512108001245126199")
                 .details("Invoice #123")
-                .creditorBankBic("BIC1234567")
+                .creditorBankBic("DEUTDEFF500")
                 .createdAt(LocalDateTime.now())
                 .canceled(true)
                 .cancellationFee(BigDecimal.valueOf(3.00))
@@ -128,6 +360,29 @@ public class PaymentControllerTest {
                 .andExpect(content().string(errorMessage));
     }
 
+    @Test
+    public void cancelPayments_ShouldReturnBulkCancellationResult() throws Exception {
+        BulkCancellationRequest request = new BulkCancellationRequest(List.of(1L, 2L, 3L, 4L), null);
+        BulkCancellationResponse response = new BulkCancellationResponse(
+                List.of(new PaymentCancellationResponse(1L, BigDecimal.valueOf(0.50))),
+                List.of(2L),
+                List.of(3L),
+                List.of(4L)
+        );
+        Mockito.when(bulkPaymentCancellationService.cancelPayments(request))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/api/payments/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.canceled[0].id").value(1L))
+                .andExpect(jsonPath("$.canceled[0].cancellationFee").value(0.50))
+                .andExpect(jsonPath("$.alreadyCanceled[0]").value(2L))
+                .andExpect(jsonPath("$.notEligible[0]").value(3L))
+                .andExpect(jsonPath("$.notFound[0]").value(4L));
+    }
+
     // --- getNonCanceledPayments tests ---
     @Test
     public void getNonCanceledPayments_ShouldReturnListOfPaymentIds() throws Exception {
@@ -158,6 +413,141 @@ public class PaymentControllerTest {
                 .andExpect(jsonPath("$.message").value(errorMessage));
     }
 
+    @Test
+    public void getNonCanceledPayments_WithLimit_ShouldReturnKeysetPage() throws Exception {
+        PaymentIdPage page = new PaymentIdPage(List.of(11L, 12L), 12L);
+        Mockito.when(paymentService.getNonCanceledPaymentIdPage(null, 10L, 2))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/payments")
+                        .param("afterId", "10")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").value(11L))
+                .andExpect(jsonPath("$.ids[1]").value(12L))
+                .andExpect(jsonPath("$.nextAfterId").value(12L));
+    }
+
+    @Test
+    public void streamNonCanceledPayments_ShouldWriteJsonArrayOfIds() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            consumer.accept(1L);
+            consumer.accept(2L);
+            consumer.accept(3L);
+            return null;
+        }).when(paymentService).streamNonCanceledPaymentIds(isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/payments/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[1,2,3]"));
+    }
+
+    // --- exportPayments tests ---
+    private static final PaymentExportFilter EXPORT_FILTER = new PaymentExportFilter(1L,
+            LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0));
+
+    private void mockExport(PaymentResponse... payments) {
+        Mockito.when(paymentExportService.exportFilter(eq(1L), any(), any())).thenReturn(EXPORT_FILTER);
+        Mockito.doAnswer(invocation -> {
+            Consumer<PaymentResponse> consumer = invocation.getArgument(1);
+            Arrays.stream(payments).forEach(consumer);
+            return null;
+        }).when(paymentExportService).exportPayments(eq(EXPORT_FILTER), any());
+    }
+
+    private static PaymentResponse exportedPayment(Long id, String details) {
+        return new PaymentResponse(id, PaymentType.TYPE1, new BigDecimal("150.00"), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", details, null,
+                LocalDateTime.of(2025, 3, 14, 13, 45), false, BigDecimal.ZERO);
+    }
+
+    @Test
+    public void exportPayments_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        mockExport(exportedPayment(1L, "Invoice #1"), exportedPayment(2L, "Invoice #2"));
+
+        MvcResult result = mockMvc.perform(get("/api/payments/export")
+                        .param("userId", "1")
+                        .param("from", "2025-03-01")
+                        .param("to", "2025-03-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("Invoice #2", objectMapper.readTree(lines[1]).get("details").asText());
+    }
+
+    @Test
+    public void exportPayments_AsCsv_ShouldQuoteFieldsWithSeparators() throws Exception {
+        mockExport(exportedPayment(1L, "Invoice \"A\", March"));
+
+        MvcResult result = mockMvc.perform(get("/api/payments/export")
+                        .param("userId", "1")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(
+                        "id,paymentType,amount,currency,debtorIban,creditorIban,details,creditorBankBic,createdAt,canceled,cancellationFee\r\n"
+                                + "1,TYPE1,150.00,EUR,DE89370400440532013000,DE75512108001245126199,\"Invoice \"\"A\"\", March\","
+                                + ",2025-03-14T13:45:00,false,0\r\n"));
+    }
+
+    @Test
+    public void exportPayments_WithoutFilter_ShouldReturnBadRequest() throws Exception {
+        Mockito.when(paymentExportService.exportFilter(isNull(), isNull(), isNull()))
+                .thenThrow(new BadRequestException("userId or a date range (from, to) is required"));
+
+        mockMvc.perform(get("/api/payments/export"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- getPaymentSummary tests ---
+    @Test
+    public void getPaymentSummary_ShouldReturnGroupsAndTotals() throws Exception {
+        var day = LocalDate.of(2025, 3, 14);
+        var group = new PaymentSummaryGroup(1L, day, Currency.USD, PaymentType.TYPE2, 3, new BigDecimal("75.00"),
+                1, new BigDecimal("1.30"));
+        Mockito.when(paymentSummaryService.getSummary(1L, day, day))
+                .thenReturn(new PaymentSummaryResponse(List.of(group),
+                        List.of(new PaymentSummaryTotal(Currency.USD, 3, new BigDecimal("75.00"), 1, new BigDecimal("1.30")))));
+
+        mockMvc.perform(get("/api/payments/summary")
+                        .param("userId", "1")
+                        .param("from", "2025-03-14")
+                        .param("to", "2025-03-14"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].userId").value(1))
+                .andExpect(jsonPath("$.groups[0].day").value("2025-03-14"))
+                .andExpect(jsonPath("$.groups[0].paymentType").value("TYPE2"))
+                .andExpect(jsonPath("$.groups[0].paymentCount").value(3))
+                .andExpect(jsonPath("$.totals[0].currency").value("USD"))
+                .andExpect(jsonPath("$.totals[0].cancellationFees").value(1.30));
+    }
+
+    @Test
+    public void getPaymentSummary_WithoutFilter_ShouldReturnBadRequest() throws Exception {
+        Mockito.when(paymentSummaryService.getSummary(isNull(), isNull(), isNull()))
+                .thenThrow(new BadRequestException("userId or a date range (from, to) is required"));
+
+        mockMvc.perform(get("/api/payments/summary"))
+                .andExpect(status().isBadRequest());
+    }
+
     // --- getPaymentById tests ---
     @Test
     public void getPaymentById_ShouldReturnPaymentCancellationResponse() throws Exception {
@@ -1,5 +1,6 @@
 package ba.paymentservice.controller;
 
+import ba.paymentservice.dto.PaymentIdPage;
 import ba.paymentservice.dto.UserCreationRequest;
 import ba.paymentservice.exception.BadRequestException;
 import ba.paymentservice.model.User;
@@ -58,7 +59,9 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.username").value("john_doe"));
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.username").value("john_doe"))
+                .andExpect(jsonPath("$.payments").doesNotExist());
     }
 
     @Test
@@ -91,6 +94,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1]").value(101));
     }
 
+    @Test
+    void getPaymentIdsByUser_WithCursor_ReturnsKeysetPage() throws Exception {
+        // Arrange
+        Long userId = 1L;
+        PaymentIdPage page = new PaymentIdPage(List.of(102L), null);
+        when(paymentService.getPaymentIdPageByUser(eq(userId), eq(101L), eq(50))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}/payments", userId)
+                        .param("afterId", "101")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").value(102))
+                .andExpect(jsonPath("$.nextAfterId").doesNotExist());
+    }
+
     @Test
     void deleteUser_ReturnsNoContent() throws Exception {
         // Arrange
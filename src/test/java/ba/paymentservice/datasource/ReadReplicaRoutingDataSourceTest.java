@@ -0,0 +1,126 @@
+package ba.paymentservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private final DataSource primary = dataSource(primaryConnection);
+    private final DataSource replica1 = dataSource(replica1Connection);
+    private final DataSource replica2 = dataSource(replica2Connection);
+
+    private final ReadReplicaRoutingDataSource routing =
+            new ReadReplicaRoutingDataSource(primary, List.of(replica1, replica2), Duration.ofMinutes(1));
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadReplicaRoutingDataSource.pinToPrimary(false);
+    }
+
+    @Test
+    public void whenTransactionIsNotReadOnly_thenPrimaryIsUsed() throws SQLException {
+        assertSame(primaryConnection, routing.getConnection());
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    public void whenTransactionIsReadOnly_thenReplicasAreUsedInTurn() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replica1Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica1Connection, routing.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void whenReplicaIsUnavailable_thenItIsSkippedUntilRetry() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @Test
+    public void whenNoReplicaIsAvailable_thenPrimaryIsUsed() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(replica2.getConnection()).thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    public void whenNoReplicasAreConfigured_thenPrimaryIsUsed() throws SQLException {
+        var primaryOnly = new ReadReplicaRoutingDataSource(primary, List.of(), Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, primaryOnly.getConnection());
+    }
+
+    @Test
+    public void whenPaymentWasWrittenRecently_thenReadIsPinnedToPrimaryUntilTransactionCompletes() throws SQLException {
+        var readYourWrites = new ReadYourWrites("jdbc:postgresql://replica/payments-db", Duration.ofMinutes(1), 1000);
+        readYourWrites.paymentWritten(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.readPaymentFromPrimaryIfWritten(2L);
+        assertSame(replica1Connection, routing.getConnection());
+
+        readYourWrites.readPaymentFromPrimaryIfWritten(1L);
+        assertSame(primaryConnection, routing.getConnection());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(ReadReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    @Test
+    public void whenWriteIsRolledBack_thenReadsAreNotPinned() {
+        var readYourWrites = new ReadYourWrites("jdbc:postgresql://replica/payments-db", Duration.ofMinutes(1), 1000);
+
+        TransactionSynchronizationManager.initSynchronization();
+        readYourWrites.paymentWritten(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        readYourWrites.readPaymentFromPrimaryIfWritten(1L);
+        assertFalse(ReadReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    private static DataSource dataSource(Connection connection) {
+        var dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
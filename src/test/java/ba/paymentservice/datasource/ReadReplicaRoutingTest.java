@@ -0,0 +1,110 @@
+package ba.paymentservice.datasource;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.PaymentNotFoundException;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import ba.paymentservice.service.PaymentService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against two independent databases standing in for a primary and its replica.
+ * The "replica" has the schema but never receives the writes, so reading a payment from it fails
+ * and shows where a query was routed.
+ */
+@SpringBootTest(properties = "paymentservice.datasource.read-your-writes-window=1m")
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingTest {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("paymentservice.datasource.replica-urls", replica::getJdbcUrl);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .placeholders(Map.of("id_allocation_size", "50"))
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void readOnlyQueries_AreServedByReplica() {
+        createPayment(createUser());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getNonCanceledPaymentIds(null));
+    }
+
+    @Test
+    void paymentsOfRecentlyWrittenUser_AreReadFromPrimary() {
+        var userId = createUser();
+        var payment = createPayment(userId);
+
+        assertEquals(List.of(payment), paymentService.getPaymentIdsByUser(userId));
+    }
+
+    @Test
+    void cancellationOfRecentlyCanceledPayment_IsReadFromPrimary() {
+        var paymentId = createPayment(createUser());
+        var canceled = paymentService.cancelPaymentById(paymentId);
+
+        var response = paymentService.getPaymentCancellationResponse(paymentId);
+
+        assertEquals(paymentId, response.id());
+        assertEquals(0, canceled.getCancellationFee().compareTo(response.cancellationFee()));
+    }
+
+    private Long createUser() {
+        var user = new User();
+        user.setUsername("routing-" + UUID.randomUUID());
+        return userRepository.save(user).getId();
+    }
+
+    private Long createPayment(Long userId) {
+        return paymentService.createAndSavePayment(new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(25.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF",
+                userId
+        )).getId();
+    }
+}
@@ -0,0 +1,117 @@
+package ba.paymentservice.datasource;
+
+import ba.paymentservice.ratelimit.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class StatementLatencyDataSourceTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final List<Long> samples = new ArrayList<>();
+
+    @Test
+    public void whenStatementsExecute_thenEachSingleExecutionIsReported() throws SQLException {
+        var dataSource = new StatementLatencyDataSource(dataSource(), samples::add);
+
+        try (var timedConnection = dataSource.getConnection();
+             var timedStatement = timedConnection.prepareStatement("select 1")) {
+            timedStatement.executeQuery();
+            timedStatement.executeUpdate();
+            timedStatement.setLong(1, 1L);
+        }
+
+        assertEquals(2, samples.size());
+        verify(statement).executeQuery();
+        verify(statement).executeUpdate();
+        verify(statement).setLong(1, 1L);
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    public void whenBatchExecutes_thenItIsNotReported() throws SQLException {
+        var dataSource = new StatementLatencyDataSource(dataSource(), samples::add);
+
+        try (var timedConnection = dataSource.getConnection();
+             var timedStatement = timedConnection.prepareStatement("insert into payment values (?)")) {
+            timedStatement.addBatch();
+            timedStatement.addBatch();
+            timedStatement.executeBatch();
+        }
+
+        assertTrue(samples.isEmpty());
+        verify(statement).executeBatch();
+    }
+
+    @Test
+    public void whenStatementFails_thenExceptionIsPassedOn() throws SQLException {
+        when(statement.executeUpdate()).thenThrow(new SQLException("duplicate key"));
+        var dataSource = new StatementLatencyDataSource(dataSource(), samples::add);
+
+        var timedStatement = dataSource.getConnection().prepareStatement("insert into payment values (?)");
+
+        assertEquals("duplicate key", assertThrows(SQLException.class, timedStatement::executeUpdate).getMessage());
+    }
+
+    @Test
+    public void statement_ReturnsTimedConnectionAndUnwrapsToDriverStatement() throws SQLException {
+        var dataSource = new StatementLatencyDataSource(dataSource(), samples::add);
+
+        var timedConnection = dataSource.getConnection();
+        var timedStatement = timedConnection.prepareStatement("select 1");
+
+        assertSame(timedConnection, timedStatement.getConnection());
+        assertSame(statement, timedStatement.unwrap(PreparedStatement.class));
+        assertSame(connection, timedConnection.unwrap(Connection.class));
+    }
+
+    @Test
+    public void whenSingleAndBatchTrafficMix_thenLimitFollowsSingleStatements() throws Exception {
+        // Single statements take about 5 ms and batches 100 ms, a batch runs in every third update interval.
+        when(statement.executeUpdate()).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return 1;
+        });
+        when(statement.executeBatch()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return new int[50];
+        });
+        var limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0, Duration.ofMillis(10));
+        var dataSource = new StatementLatencyDataSource(dataSource(), limiter::onDatabaseLatency);
+
+        try (var timedConnection = dataSource.getConnection()) {
+            var timedStatement = timedConnection.prepareStatement("insert into payment values (?)");
+            for (int i = 0; i < 12; i++) {
+                for (int j = 0; j < 3; j++) {
+                    timedStatement.executeUpdate();
+                }
+                if (i % 3 == 0) {
+                    timedStatement.executeBatch();
+                }
+            }
+        }
+
+        // Counting the batches halves the limit in each of their intervals, down to 8. A single slow interval
+        // (a GC pause on a busy machine) takes it to no less than 14.
+        assertTrue(limiter.limit() > 12, "limit " + limiter.limit());
+    }
+
+    private DataSource dataSource() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        return dataSource;
+    }
+}
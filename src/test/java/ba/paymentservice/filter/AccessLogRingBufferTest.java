@@ -0,0 +1,83 @@
+package ba.paymentservice.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogRingBufferTest {
+
+    @Test
+    public void whenRecordsOffered_thenDrainedInOrder() {
+        var ringBuffer = new AccessLogRingBuffer(4);
+        ringBuffer.offer(1L, "GET", "/api/payments", null, "127.0.0.1", 200, 1_000L);
+        ringBuffer.offer(2L, "POST", "/api/payments", "a=b", "127.0.0.1", 201, 2_000L);
+
+        List<String> drained = new ArrayList<>();
+        int count = ringBuffer.drain(record -> drained.add(record.method + " " + record.status), 10);
+
+        assertEquals(2, count);
+        assertEquals(List.of("GET 200", "POST 201"), drained);
+        assertEquals(0, ringBuffer.drain(record -> fail("Ring buffer should be empty"), 10));
+    }
+
+    @Test
+    public void whenRingBufferFull_thenRecordIsDroppedAndCounted() {
+        var ringBuffer = new AccessLogRingBuffer(2);
+
+        assertTrue(ringBuffer.offer(1L, "GET", "/a", null, "ip", 200, 1L));
+        assertTrue(ringBuffer.offer(2L, "GET", "/b", null, "ip", 200, 1L));
+        assertFalse(ringBuffer.offer(3L, "GET", "/c", null, "ip", 200, 1L));
+        assertEquals(1, ringBuffer.dropped());
+
+        ringBuffer.drain(record -> { }, 1);
+
+        assertTrue(ringBuffer.offer(4L, "GET", "/d", null, "ip", 200, 1L));
+    }
+
+    @Test
+    public void whenCapacityNotPowerOfTwo_thenRoundedUp() {
+        assertEquals(8, new AccessLogRingBuffer(5).capacity());
+        assertEquals(8, new AccessLogRingBuffer(8).capacity());
+    }
+
+    @Test
+    public void whenConcurrentProducers_thenEveryRecordDrainedOnce() throws InterruptedException {
+        int producers = 4;
+        int recordsPerProducer = 50_000;
+        var ringBuffer = new AccessLogRingBuffer(1024);
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < recordsPerProducer; i++) {
+                    long id = (long) producer * recordsPerProducer + i;
+                    while (!ringBuffer.offer(id, "GET", "/", null, "ip", 200, 0L)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        Set<Long> seen = new HashSet<>();
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * recordsPerProducer && System.nanoTime() < deadline) {
+            ringBuffer.drain(record -> assertTrue(seen.add(record.timestampMillis), "Duplicate record"), 256);
+        }
+        executor.shutdown();
+
+        assertEquals(producers * recordsPerProducer, seen.size());
+    }
+}
@@ -0,0 +1,65 @@
+package ba.paymentservice.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void whenRecordsOffered_thenWrittenAsJsonLines() throws Exception {
+        var ringBuffer = new AccessLogRingBuffer(16);
+        var file = tempDir.resolve("access.log");
+        var writer = new AccessLogWriter(ringBuffer, file, 8, Duration.ofMillis(1), Duration.ofMillis(10));
+        writer.start();
+
+        ringBuffer.offer(1L, "GET", "/api/payments/1", null, "127.0.0.1", 200, 5_000L);
+        writer.stop();
+
+        assertEquals(List.of("{\"timestamp\":1,\"method\":\"GET\",\"uri\":\"/api/payments/1\",\"query\":null,"
+                + "\"clientIp\":\"127.0.0.1\",\"status\":200,\"latencyMicros\":5}"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void whenFileCannotBeOpened_thenWriterRetriesUntilItCan() throws Exception {
+        var ringBuffer = new AccessLogRingBuffer(16);
+        // A regular file in place of the log directory makes opening the log fail.
+        var directory = Files.createFile(tempDir.resolve("logs"));
+        var file = directory.resolve("access.log");
+        var writer = new AccessLogWriter(ringBuffer, file, 8, Duration.ofMillis(1), Duration.ofMillis(10));
+        writer.start();
+
+        ringBuffer.offer(1L, "GET", "/a", null, "ip", 200, 1_000L);
+        Thread.sleep(50);
+        Files.delete(directory);
+        ringBuffer.offer(2L, "GET", "/b", null, "ip", 200, 1_000L);
+
+        waitForLines(file, 2);
+        writer.stop();
+
+        var lines = Files.readAllLines(file);
+        assertTrue(lines.get(0).contains("\"uri\":\"/a\""));
+        assertTrue(lines.get(1).contains("\"uri\":\"/b\""));
+    }
+
+    private static void waitForLines(Path file, int count) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (Files.exists(file) && Files.readAllLines(file).size() >= count) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Access log was not written");
+    }
+}
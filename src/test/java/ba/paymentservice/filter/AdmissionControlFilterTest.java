@@ -0,0 +1,67 @@
+package ba.paymentservice.filter;
+
+import ba.paymentservice.ratelimit.AdaptiveConcurrencyLimiter;
+import ba.paymentservice.ratelimit.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+    private final JsonMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    public void whenClientRateLimitExceeded_thenRejectedWithRetryAfter() throws Exception {
+        var filter = new AdmissionControlFilter(new TokenBucketRateLimiter(1, 0.5, 100),
+                AdaptiveConcurrencyLimiter.unlimited(), objectMapper);
+
+        assertEquals(200, perform(filter, "10.0.0.1", new MockFilterChain()).getStatus());
+        var rejected = perform(filter, "10.0.0.1", new MockFilterChain());
+        var otherClient = perform(filter, "10.0.0.2", new MockFilterChain());
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"errorCode\":429"));
+        assertEquals(200, otherClient.getStatus());
+    }
+
+    @Test
+    public void whenConcurrencyLimitReached_thenRejectedAndPermitReleasedAfterRequest() throws Exception {
+        var concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, Duration.ofSeconds(1));
+        var filter = new AdmissionControlFilter(TokenBucketRateLimiter.unlimited(), concurrencyLimiter, objectMapper);
+
+        var nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> {
+            try {
+                nested[0] = perform(filter, "10.0.0.2", new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        assertEquals(200, perform(filter, "10.0.0.1", chain).getStatus());
+
+        assertEquals(429, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals(0, concurrencyLimiter.inFlight());
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, String clientIp, FilterChain chain)
+            throws Exception {
+        var request = new MockHttpServletRequest("POST", "/api/payments");
+        request.setRemoteAddr(clientIp);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
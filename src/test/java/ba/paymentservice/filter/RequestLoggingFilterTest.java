@@ -0,0 +1,58 @@
+package ba.paymentservice.filter;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestLoggingFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void whenStreamedResponseFails_thenLoggedOnAsyncDispatchAsServerError() throws Exception {
+        var file = tempDir.resolve("access.log");
+        var filter = new RequestLoggingFilter(true, file.toString(), 16, 8, 1.0, Duration.ofMillis(1));
+        var request = new MockHttpServletRequest("GET", "/api/payments/export");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        Thread.sleep(20);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThrows(IOException.class, () -> filter.doFilter(request, response, (req, res) -> {
+            throw new IOException("Export failed midway");
+        }));
+        filter.destroy();
+
+        var lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"status\":500"));
+        var latencyMicros = Long.parseLong(lines.get(0).replaceAll(".*\"latencyMicros\":(\\d+).*", "$1"));
+        assertTrue(latencyMicros >= 20_000, "latency includes the async processing, was " + latencyMicros);
+    }
+
+    @Test
+    public void whenRequestIsNotAsync_thenLoggedWhenChainReturns() throws Exception {
+        var file = tempDir.resolve("access.log");
+        var filter = new RequestLoggingFilter(true, file.toString(), 16, 8, 1.0, Duration.ofMillis(1));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/payments/1"), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(404));
+        filter.destroy();
+
+        var lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"status\":404"));
+    }
+}
@@ -0,0 +1,46 @@
+package ba.paymentservice.json;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PaymentResponseSerializerTest {
+
+    // Same settings as the Spring Boot ObjectMapper.
+    private final ObjectMapper reflectiveMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper mapper = reflectiveMapper.copy()
+            .registerModule(new SimpleModule().addSerializer(PaymentResponse.class, new PaymentResponseSerializer()));
+
+    @Test
+    public void whenSerialized_thenMatchesReflectiveSerialization() throws Exception {
+        var response = new PaymentResponse(1L, PaymentType.TYPE1, new BigDecimal("150.00"), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", "Invoice #123", null,
+                LocalDateTime.of(2025, 3, 14, 13, 45), false, BigDecimal.ZERO);
+
+        assertEquals(reflectiveMapper.readTree(reflectiveMapper.writeValueAsString(response)),
+                mapper.readTree(mapper.writeValueAsString(response)));
+    }
+
+    @Test
+    public void whenCreatedAtHasNanos_thenWrittenLikeJavaTimeModule() throws Exception {
+        var response = new PaymentResponse(2L, PaymentType.TYPE2, BigDecimal.TEN, Currency.USD, "a", "b", null, null,
+                LocalDateTime.of(2025, 3, 14, 13, 45, 0, 123_000_000), true, BigDecimal.ONE);
+
+        assertEquals(reflectiveMapper.writeValueAsString(response.createdAt()),
+                '"' + mapper.readTree(mapper.writeValueAsString(response)).get("createdAt").asText() + '"');
+    }
+}
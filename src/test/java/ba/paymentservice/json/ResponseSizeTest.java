@@ -0,0 +1,76 @@
+package ba.paymentservice.json;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.dto.UserResponse;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Response records against the JPA entities the API used to return, serialized like PaymentSerializationBenchmark.
+public class ResponseSizeTest {
+
+    private static final int USER_PAYMENTS = 1_000;
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .addModule(new SimpleModule()
+                    .addSerializer(PaymentResponse.class, new PaymentResponseSerializer())
+                    .addSerializer(UserResponse.class, new UserResponseSerializer()))
+            .build();
+
+    @Test
+    public void paymentResponse_ShouldBeSmallerThanEntity() throws Exception {
+        var payment = payment();
+
+        int entitySize = mapper.writeValueAsBytes(payment).length;
+        int responseSize = mapper.writeValueAsBytes(PaymentResponse.from(payment)).length;
+
+        assertTrue(responseSize < entitySize, "PaymentResponse " + responseSize + " bytes, entity " + entitySize + " bytes");
+    }
+
+    @Test
+    public void userResponse_ShouldNotGrowWithPayments() throws Exception {
+        var user = new User();
+        user.setUsername("john_doe");
+        var payments = new ArrayList<Payment>(USER_PAYMENTS);
+        for (int i = 0; i < USER_PAYMENTS; i++) {
+            payments.add(payment());
+        }
+        user.setPayments(payments);
+
+        int entitySize = mapper.writeValueAsBytes(user).length;
+        int responseSize = mapper.writeValueAsBytes(UserResponse.from(user)).length;
+
+        assertTrue(responseSize < 100, "UserResponse " + responseSize + " bytes");
+        assertTrue(entitySize > USER_PAYMENTS * responseSize, "user entity " + entitySize + " bytes");
+    }
+
+    private static Payment payment() {
+        return Payment.builder()
+                .id(1L)
+                .paymentType(PaymentType.TYPE1)
+                .amount(new BigDecimal("150.00"))
+                .currency(Currency.EUR)
+                .debtorIban("DE89370400440532013000")
+                .creditorIban("DE75512108001245126199")
+                .details("Invoice #123")
+                .creditorBankBic("DEUTDEFF500")
+                .createdAt(LocalDateTime.of(2025, 3, 14, 13, 45))
+                .canceled(false)
+                .cancellationFee(BigDecimal.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package ba.paymentservice.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyEndpointTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LatencyMetrics latencyMetrics = new LatencyMetrics(meterRegistry);
+    private final LatencyEndpoint endpoint = new LatencyEndpoint(meterRegistry);
+
+    @Test
+    public void whenPhaseRecorded_thenReportedWithCountAndPercentiles() {
+        latencyMetrics.record(LatencyPhase.USER_LOOKUP, System.nanoTime() - Duration.ofMillis(5).toNanos());
+        latencyMetrics.record(LatencyPhase.USER_LOOKUP, System.nanoTime() - Duration.ofMillis(5).toNanos());
+
+        var report = endpoint.latency();
+
+        var userLookup = report.phases().stream()
+                .filter(summary -> "user-lookup".equals(summary.tags().get("phase")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, userLookup.count());
+        assertEquals(Set.of("p50", "p99", "p999"), userLookup.percentilesMillis().keySet());
+        assertTrue(userLookup.maxMillis() >= 5.0);
+        assertEquals(LatencyPhase.values().length, report.phases().size());
+    }
+
+    @Test
+    public void whenRequestsRecorded_thenReportedPerEndpoint() {
+        Timer.builder(LatencyEndpoint.HTTP_SERVER_REQUESTS)
+                .tags("method", "POST", "uri", "/api/payments", "status", "200")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(3));
+
+        var report = endpoint.latency();
+
+        assertEquals(1, report.endpoints().size());
+        assertEquals(Map.of("method", "POST", "uri", "/api/payments", "status", "200"), report.endpoints().get(0).tags());
+        assertEquals(1, report.endpoints().get(0).count());
+    }
+}
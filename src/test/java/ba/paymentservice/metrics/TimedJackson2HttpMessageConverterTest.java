@@ -0,0 +1,61 @@
+package ba.paymentservice.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedJackson2HttpMessageConverterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedJackson2HttpMessageConverter converter =
+            new TimedJackson2HttpMessageConverter(new ObjectMapper(), new LatencyMetrics(meterRegistry));
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void whenPaymentCreationResponseWritten_thenSerializationIsTimed() throws IOException {
+        write("POST", "/api/payments");
+        write("POST", "/api/payments/batch");
+
+        assertEquals(2, serializationCount());
+    }
+
+    @Test
+    public void whenOtherResponseWritten_thenSerializationIsNotTimed() throws IOException {
+        write("GET", "/api/payments/{paymentId}");
+        write("POST", "/api/payments/{paymentId}/cancel");
+        write("GET", "/api/payments");
+
+        assertEquals(0, serializationCount());
+    }
+
+    private void write(String method, String pattern) throws IOException {
+        var request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        var outputMessage = new MockHttpOutputMessage();
+
+        converter.write(Map.of("id", 1), MediaType.APPLICATION_JSON, outputMessage);
+
+        assertEquals("{\"id\":1}", outputMessage.getBodyAsString());
+    }
+
+    private long serializationCount() {
+        return meterRegistry.get(LatencyMetrics.PHASE_TIMER).tag("phase", "serialization").timer().count();
+    }
+}
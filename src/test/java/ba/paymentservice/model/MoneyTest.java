@@ -0,0 +1,30 @@
+package ba.paymentservice.model;
+
+import ba.paymentservice.dto.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    public void whenCreatedFromBigDecimal_thenHeldInMinorUnits() {
+        assertEquals(15000L, Money.of(new BigDecimal("150"), Currency.EUR).minorUnits());
+        assertEquals(new BigDecimal("150.00"), Money.of(new BigDecimal("150"), Currency.EUR).toBigDecimal());
+    }
+
+    @Test
+    public void whenMoreFractionDigitsThanCurrency_thenRoundedHalfEven() {
+        assertEquals(2L, Money.of(new BigDecimal("0.025"), Currency.EUR).minorUnits());
+        assertEquals(4L, Money.of(new BigDecimal("0.035"), Currency.EUR).minorUnits());
+        assertEquals(-4L, Money.of(new BigDecimal("-0.035"), Currency.EUR).minorUnits());
+        assertEquals(3L, Money.of(new BigDecimal("0.026"), Currency.EUR).minorUnits());
+    }
+
+    @Test
+    public void whenAmountDoesNotFitMinorUnits_thenCreationFails() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+20"), Currency.EUR));
+    }
+}
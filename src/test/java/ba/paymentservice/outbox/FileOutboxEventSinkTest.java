@@ -0,0 +1,57 @@
+package ba.paymentservice.outbox;
+
+import ba.paymentservice.dto.PaymentEventType;
+import ba.paymentservice.model.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileOutboxEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void publish_AppendsOneJsonLinePerEvent() throws Exception {
+        var file = tempDir.resolve("events/outbox.ndjson");
+        var sink = new FileOutboxEventSink(objectMapper.getFactory(), file);
+
+        sink.publish(List.of(event(1L, PaymentEventType.PAYMENT_CREATED, 7L, "{\"id\":7,\"amount\":10.00}")));
+        sink.publish(List.of(event(2L, PaymentEventType.PAYMENT_CANCELED, 7L, "{\"id\":7,\"cancellationFee\":0.65}")));
+
+        var lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+
+        JsonNode created = objectMapper.readTree(lines.get(0));
+        assertEquals("PAYMENT_CREATED", created.get("type").asText());
+        assertEquals(7L, created.get("paymentId").asLong());
+        assertEquals("2025-03-01T13:30:00", created.get("createdAt").asText());
+        assertEquals(1L, created.get("id").asLong());
+        // The payload is embedded as it was stored.
+        assertTrue(lines.get(0).endsWith("\"payload\":{\"id\":7,\"amount\":10.00}}"));
+
+        JsonNode canceled = objectMapper.readTree(lines.get(1));
+        assertEquals("PAYMENT_CANCELED", canceled.get("type").asText());
+        assertEquals(2L, canceled.get("id").asLong());
+        assertEquals(0.65, canceled.get("payload").get("cancellationFee").asDouble());
+    }
+
+    private static OutboxEvent event(Long id, PaymentEventType type, Long paymentId, String payload) {
+        var event = new OutboxEvent(type, paymentId, payload, LocalDateTime.of(2025, 3, 1, 13, 30));
+        // Assigned by the sequence when the event is persisted.
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
@@ -0,0 +1,90 @@
+package ba.paymentservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final long INTERVAL = 100 * MILLIS;
+
+    @Test
+    public void whenLimitReached_thenRejectedUntilReleased() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, Duration.ofNanos(INTERVAL));
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    public void whenDatabaseGetsSlower_thenLimitShrinks() {
+        var limiter = new AdaptiveConcurrencyLimiter(40, 4, 100, 2.0, Duration.ofNanos(INTERVAL));
+        long now = System.nanoTime();
+
+        now = interval(limiter, now, 5 * MILLIS);
+        assertEquals(40, limiter.limit());
+
+        now = interval(limiter, now, 50 * MILLIS);
+        int afterFirstSlowInterval = limiter.limit();
+        assertTrue(afterFirstSlowInterval < 40 && afterFirstSlowInterval >= 20, "limit " + afterFirstSlowInterval);
+
+        for (int i = 0; i < 10; i++) {
+            now = interval(limiter, now, 50 * MILLIS);
+        }
+        assertTrue(limiter.limit() <= 5, "limit " + limiter.limit());
+    }
+
+    @Test
+    public void whenSaturatedWithStableLatency_thenLimitGrowsUpToMax() {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 4, 8, 2.0, Duration.ofNanos(INTERVAL));
+        long now = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        for (int i = 0; i < 20; i++) {
+            now = interval(limiter, now, 5 * MILLIS);
+        }
+
+        assertEquals(8, limiter.limit());
+    }
+
+    @Test
+    public void whenMostlyIdle_thenLimitDoesNotGrow() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 2.0, Duration.ofNanos(INTERVAL));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 20; i++) {
+            now = interval(limiter, now, 5 * MILLIS);
+        }
+
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    public void unlimitedLimiter_AdmitsEverything() {
+        var limiter = AdaptiveConcurrencyLimiter.unlimited();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    // Records a few samples of the given latency and moves past the end of the update interval.
+    private static long interval(AdaptiveConcurrencyLimiter limiter, long now, long latencyNanos) {
+        for (int i = 0; i < 10; i++) {
+            limiter.onDatabaseLatency(latencyNanos, now);
+        }
+        now += INTERVAL;
+        limiter.onDatabaseLatency(latencyNanos, now);
+        return now;
+    }
+}
@@ -0,0 +1,91 @@
+package ba.paymentservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void whenBurstUsedUp_thenRejectedUntilRefilled() {
+        var limiter = new TokenBucketRateLimiter(3, 10, 100);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("client", now));
+        assertEquals(0, limiter.tryAcquire("client", now));
+        assertEquals(0, limiter.tryAcquire("client", now));
+        assertEquals(SECOND / 10, limiter.tryAcquire("client", now));
+
+        assertEquals(0, limiter.tryAcquire("client", now + SECOND / 10));
+        assertTrue(limiter.tryAcquire("client", now + SECOND / 10) > 0);
+    }
+
+    @Test
+    public void whenIdleLongerThanRefill_thenBucketIsFullAgain() {
+        var limiter = new TokenBucketRateLimiter(2, 1, 100);
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire("client", now);
+        limiter.tryAcquire("client", now);
+
+        assertEquals(0, limiter.tryAcquire("client", now + 10 * SECOND));
+        assertEquals(0, limiter.tryAcquire("client", now + 10 * SECOND));
+        assertTrue(limiter.tryAcquire("client", now + 10 * SECOND) > 0);
+    }
+
+    @Test
+    public void keysHaveSeparateBuckets() {
+        var limiter = new TokenBucketRateLimiter(1, 1, 100);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire(1L, now));
+        assertTrue(limiter.tryAcquire(1L, now) > 0);
+        assertEquals(0, limiter.tryAcquire(2L, now));
+    }
+
+    @Test
+    public void whenOneBucketIsEmpty_thenNoTokenIsTakenFromTheOthers() {
+        var limiter = new TokenBucketRateLimiter(1, 1, 100);
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire(3L, now);
+
+        assertEquals(SECOND, limiter.tryAcquireAll(List.of(1L, 2L, 3L), now));
+        assertEquals(0, limiter.tryAcquireAll(List.of(1L, 2L), now));
+        assertTrue(limiter.tryAcquire(1L, now) > 0);
+    }
+
+    @Test
+    public void whenAcquiredConcurrently_thenExactlyCapacityTokensAreTaken() throws InterruptedException {
+        // The refill rate is so low that no token is added while the test runs.
+        var limiter = new TokenBucketRateLimiter(1_000, 0.001, 100);
+        var admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4_000; i++) {
+            executor.execute(() -> {
+                if (limiter.tryAcquire("client") == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, admitted.get());
+    }
+
+    @Test
+    public void unlimitedLimiter_AdmitsEverything() {
+        var limiter = TokenBucketRateLimiter.unlimited();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+    }
+}
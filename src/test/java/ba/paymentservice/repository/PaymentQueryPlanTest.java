@@ -0,0 +1,171 @@
+package ba.paymentservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the queries of {@link PaymentRepository} are planned on the indexes from the
+ * Flyway migrations against a seeded table of a million payments in monthly partitions.
+ * Partitions get their own copies of the indexes, so the plans are checked for index scans only.
+ * The SQL mirrors what Hibernate generates for the repository methods, the native summary upserts of
+ * {@link PaymentSummaryRepository} are planned as they are.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// The seeded data is shared by all tests and vacuum cannot run inside a transaction.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final String INDEX_SCAN = "Index Only Scan";
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedPayments() {
+        if (seeded) {
+            return;
+        }
+        // The payments span a year, create the partitions of the past months like PaymentPartitionMaintainer.
+        jdbcTemplate.execute("""
+                do $$
+                declare
+                    partition_start date := date_trunc('month', now() - interval '1 year');
+                begin
+                    while partition_start < date_trunc('month', now()) loop
+                        execute format('create table if not exists %I partition of payment for values from (%L) to (%L)',
+                                       'payment_p' || to_char(partition_start, 'YYYY_MM'),
+                                       partition_start, partition_start + interval '1 month');
+                        partition_start := partition_start + interval '1 month';
+                    end loop;
+                end $$
+                """);
+        jdbcTemplate.update("""
+                insert into users (id, version, username)
+                select g, 0, 'user_' || g from generate_series(1, 1000) g
+                """);
+        // One in twenty payments is not canceled, amounts 1..10000, spread over 1000 users and a year.
+        jdbcTemplate.update("""
+                insert into payment (id, version, payment_type, amount, currency, debtor_iban, creditor_iban,
+                                     details, creditor_bank_bic, created_at, canceled, cancellation_fee, user_id)
+                select g, 0, 'TYPE2', g % 10000 + 1, 'USD', 'DE89370400440532013000', 'DE75512108001245126199',
+                       null, 'DEUTDEFF', now() - (g % 365) * interval '1 day', g % 20 <> 0, 0, g % 1000 + 1
+                from generate_series(1, 1000000) g
+                """);
+        jdbcTemplate.execute("vacuum analyze payment");
+        seeded = true;
+    }
+
+    @Test
+    void findByCanceledFalse_UsesPartialIndex() {
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.canceled = false"))
+                .contains(INDEX_SCAN)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findNonCanceledIdsAfter_UsesPartialIndex() {
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.canceled = false and p1_0.id > ? order by p1_0.id fetch first ? rows only",
+                500_000L, 1000))
+                .contains(INDEX_SCAN)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findByCanceledAndAmount_UsesCanceledAmountIndex() {
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.canceled = ? and p1_0.amount = ?",
+                false, BigDecimal.valueOf(150)))
+                .contains(INDEX_SCAN)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findByUserId_UsesUserIndex() {
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.user_id = ?", 42L))
+                .contains(INDEX_SCAN)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findIdsByUserIdAfter_UsesUserIndex() {
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.user_id = ? and p1_0.id > ? order by p1_0.id fetch first ? rows only",
+                42L, 10_000L, 1000))
+                .contains(INDEX_SCAN)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void cancelIfCancelable_ScansOnlyPartitionOfToday() {
+        var today = LocalDate.now().atStartOfDay();
+        assertThat(plan("update payment set canceled = true where id = ? and canceled = false and created_at >= ? and created_at < ?",
+                42L, Timestamp.valueOf(today), Timestamp.valueOf(today.plusDays(1))))
+                .contains(PaymentPartitionRepository.partitionName(YearMonth.now()))
+                .doesNotContain(PaymentPartitionRepository.partitionName(YearMonth.now().minusMonths(1)))
+                .doesNotContain("payment_default");
+    }
+
+    @Test
+    void streamExportByCreatedAt_ScansOnlyPartitionsInRange() {
+        var month = YearMonth.now().minusMonths(3);
+        assertThat(plan("select p1_0.id from payment p1_0 where p1_0.created_at >= ? and p1_0.created_at < ? order by p1_0.created_at, p1_0.id",
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()), Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())))
+                .contains(PaymentPartitionRepository.partitionName(month))
+                .doesNotContain(PaymentPartitionRepository.partitionName(month.minusMonths(1)))
+                .doesNotContain(PaymentPartitionRepository.partitionName(month.plusMonths(1)));
+    }
+
+    @Test
+    void addCreated_ScansOnlyPartitionOfCreationDays() {
+        var today = LocalDate.now().atStartOfDay();
+        assertThat(namedPlan(PaymentSummaryRepository.ADD_CREATED, Map.of(
+                "ids", List.of(42L, 43L), "createdFrom", Timestamp.valueOf(today), "createdTo", Timestamp.valueOf(today.plusDays(1)))))
+                .contains(PaymentPartitionRepository.partitionName(YearMonth.now()))
+                .doesNotContain(PaymentPartitionRepository.partitionName(YearMonth.now().minusMonths(1)))
+                .doesNotContain("payment_default");
+    }
+
+    @Test
+    void addCanceled_ScansOnlyPartitionOfCreationDays() {
+        var today = LocalDate.now().atStartOfDay();
+        assertThat(namedPlan(PaymentSummaryRepository.ADD_CANCELED, Map.of(
+                "ids", List.of(42L, 43L), "createdFrom", Timestamp.valueOf(today), "createdTo", Timestamp.valueOf(today.plusDays(1)))))
+                .contains(PaymentPartitionRepository.partitionName(YearMonth.now()))
+                .doesNotContain(PaymentPartitionRepository.partitionName(YearMonth.now().minusMonths(1)))
+                .doesNotContain("payment_default");
+    }
+
+    private String plan(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("explain (format json) " + sql, String.class, args);
+    }
+
+    private String namedPlan(String sql, Map<String, ?> params) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject("explain (format json) " + sql, params, String.class);
+    }
+}
@@ -0,0 +1,73 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.archive.PaymentArchive;
+import ba.paymentservice.archive.PaymentArchiveRecord;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.PaymentArchiveUnavailableException;
+import ba.paymentservice.repository.PaymentPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ArchivedPaymentServiceTest {
+
+    private static final ArchivedMonth JANUARY = new ArchivedMonth(YearMonth.of(2025, 1), 2, 1L, 10L);
+    private static final ArchivedMonth FEBRUARY = new ArchivedMonth(YearMonth.of(2025, 2), 2, 11L, 20L);
+    private static final ArchivedMonth MARCH = new ArchivedMonth(YearMonth.of(2025, 3), 0, null, null);
+
+    private final PaymentPartitionRepository partitionRepository = mock(PaymentPartitionRepository.class);
+    private final PaymentArchive paymentArchive = mock(PaymentArchive.class);
+    private final ArchivedPaymentService archivedPaymentService = new ArchivedPaymentService(partitionRepository, paymentArchive);
+
+    @BeforeEach
+    public void setUp() {
+        when(partitionRepository.findArchivedMonths()).thenReturn(List.of(JANUARY, FEBRUARY, MARCH));
+        when(paymentArchive.contains(any())).thenReturn(true);
+    }
+
+    @Test
+    public void findPayment_ReadsOnlyMonthWhoseIdRangeContainsPayment() {
+        var payment = new PaymentArchiveRecord(15L, 1L, PaymentType.TYPE1, BigDecimal.TEN, Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", null, null,
+                LocalDateTime.of(2025, 2, 3, 9, 0), false, null);
+        when(paymentArchive.findPayment(YearMonth.of(2025, 2), 15L)).thenReturn(Optional.of(payment));
+
+        assertEquals(Optional.of(payment), archivedPaymentService.findPayment(15L));
+        verify(paymentArchive, never()).findPayment(eq(YearMonth.of(2025, 1)), anyLong());
+        verify(paymentArchive, never()).findPayment(eq(YearMonth.of(2025, 3)), anyLong());
+    }
+
+    @Test
+    public void whenNoMonthContainsId_thenArchiveIsNotRead() {
+        assertEquals(Optional.empty(), archivedPaymentService.findPayment(21L));
+        verify(paymentArchive, never()).findPayment(any(), anyLong());
+    }
+
+    @Test
+    public void archivedMonths_ReturnsMonthsOverlappingRange() {
+        assertEquals(List.of(FEBRUARY, MARCH), archivedPaymentService.archivedMonths(
+                LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0)));
+    }
+
+    @Test
+    public void whenArchivedMonthIsMissingOnThisInstance_thenThrowPaymentArchiveUnavailableException() {
+        when(paymentArchive.contains(YearMonth.of(2025, 2))).thenReturn(false);
+
+        var exception = assertThrows(PaymentArchiveUnavailableException.class, () -> archivedPaymentService.archivedMonths(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 3, 1, 0, 0)));
+        assertEquals("Archived payments of 2025-02 are not available on this instance", exception.getMessage());
+        assertThrows(PaymentArchiveUnavailableException.class, () -> archivedPaymentService.findPayment(12L));
+    }
+}
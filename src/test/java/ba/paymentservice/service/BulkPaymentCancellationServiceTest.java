@@ -0,0 +1,128 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.config.CacheConfig;
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.BulkCancellationRequest;
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.repository.CanceledPaymentProjection;
+import ba.paymentservice.repository.PaymentCancellationStatus;
+import ba.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BulkPaymentCancellationServiceTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentOutbox paymentOutbox = mock(PaymentOutbox.class);
+    private final ReadYourWrites readYourWrites = mock(ReadYourWrites.class);
+    private final PaymentSummaryService paymentSummaryService = mock(PaymentSummaryService.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PAYMENT_CANCELLATION_CACHE);
+
+    private BulkPaymentCancellationService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new BulkPaymentCancellationService(paymentRepository, new PaymentCancellationCacheEviction(cacheManager),
+                paymentOutbox, readYourWrites, paymentSummaryService, 1000);
+    }
+
+    @Test
+    public void cancelByIds_ClassifiesPaymentsThatWereNotCanceled() {
+        when(paymentRepository.cancelAllIfCancelable(anyCollection(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(canceled(1L, BigDecimal.valueOf(0.50))));
+        when(paymentRepository.findCancellationStatusByIdIn(anyCollection()))
+                .thenReturn(List.of(
+                        status(2L, true, LocalDateTime.now()),
+                        status(3L, false, LocalDateTime.now().minusDays(1))
+                ));
+        cacheManager.getCache(CacheConfig.PAYMENT_CANCELLATION_CACHE)
+                .put(1L, new PaymentCancellationResponse(1L, BigDecimal.ZERO));
+
+        var response = service.cancelPayments(new BulkCancellationRequest(List.of(1L, 2L, 3L, 4L, 1L), null));
+
+        assertEquals(List.of(new PaymentCancellationResponse(1L, BigDecimal.valueOf(0.50))), response.canceled());
+        assertEquals(List.of(2L), response.alreadyCanceled());
+        assertEquals(List.of(3L), response.notEligible());
+        assertEquals(List.of(4L), response.notFound());
+        verify(paymentOutbox).paymentsCanceled(response.canceled());
+        verify(readYourWrites).paymentsWritten(List.of(1L));
+        verify(readYourWrites, never()).userWritten(any());
+        var today = LocalDate.now().atStartOfDay();
+        verify(paymentSummaryService).paymentsCanceled(List.of(1L), today, today.plusDays(1));
+        assertNull(cacheManager.getCache(CacheConfig.PAYMENT_CANCELLATION_CACHE).get(1L));
+    }
+
+    @Test
+    public void cancelByUser_ReportsCanceledAndAlreadyCanceledPayments() {
+        when(paymentRepository.findCanceledIdsByUserCreatedBetween(eq(7L), any(), any()))
+                .thenReturn(List.of(5L));
+        when(paymentRepository.cancelAllByUserIfCancelable(eq(7L), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(canceled(6L, BigDecimal.ONE)));
+
+        var response = service.cancelPayments(new BulkCancellationRequest(null, 7L));
+
+        assertEquals(List.of(new PaymentCancellationResponse(6L, BigDecimal.ONE)), response.canceled());
+        assertEquals(List.of(5L), response.alreadyCanceled());
+        verify(paymentRepository, never()).findCancellationStatusByIdIn(anyCollection());
+        verify(readYourWrites).paymentsWritten(List.of(6L));
+        verify(readYourWrites).userWritten(7L);
+    }
+
+    @Test
+    public void whenBothIdsAndUserAreGiven_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class,
+                () -> service.cancelPayments(new BulkCancellationRequest(List.of(1L), 7L)));
+    }
+
+    @Test
+    public void whenNeitherIdsNorUserAreGiven_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class,
+                () -> service.cancelPayments(new BulkCancellationRequest(List.of(), null)));
+    }
+
+    private static CanceledPaymentProjection canceled(Long id, BigDecimal fee) {
+        return new CanceledPaymentProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getCancellationFee() {
+                return fee;
+            }
+        };
+    }
+
+    private static PaymentCancellationStatus status(Long id, boolean canceled, LocalDateTime createdAt) {
+        return new PaymentCancellationStatus() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return canceled;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
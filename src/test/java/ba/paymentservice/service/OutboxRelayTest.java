@@ -0,0 +1,78 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.PaymentEventType;
+import ba.paymentservice.model.OutboxEvent;
+import ba.paymentservice.outbox.OutboxEventSink;
+import ba.paymentservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTest {
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final OutboxEventSink sink = mock(OutboxEventSink.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        relay = new OutboxRelay(outboxEventRepository, sink, new TransactionTemplate(transactionManager), 2);
+    }
+
+    @Test
+    public void relay_PublishesAndDeletesBatchesUntilOutboxIsDrained() {
+        var first = List.of(event(1L), event(2L));
+        var second = List.of(event(3L));
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(first, second);
+
+        relay.relay();
+
+        var inOrder = inOrder(sink, outboxEventRepository);
+        inOrder.verify(sink).publish(first);
+        inOrder.verify(outboxEventRepository).deleteAllInBatch(first);
+        inOrder.verify(sink).publish(second);
+        inOrder.verify(outboxEventRepository).deleteAllInBatch(second);
+        verify(outboxEventRepository, times(2)).lockNextBatch(2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void whenOutboxIsEmpty_thenNothingIsPublished() {
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        assertEquals(0, relay.publishBatch());
+
+        verifyNoInteractions(sink);
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    public void whenSinkFails_thenEventsAreKeptAndTransactionRolledBack() {
+        var events = List.of(event(1L));
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(events);
+        doThrow(new IllegalStateException("sink unavailable")).when(sink).publish(events);
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyList());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static OutboxEvent event(Long paymentId) {
+        return new OutboxEvent(PaymentEventType.PAYMENT_CREATED, paymentId, "{}", LocalDateTime.now());
+    }
+}
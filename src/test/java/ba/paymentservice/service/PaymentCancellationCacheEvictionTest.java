@@ -0,0 +1,51 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.config.CacheConfig;
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PaymentCancellationCacheEvictionTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PAYMENT_CANCELLATION_CACHE);
+    private final PaymentCancellationCacheEviction cacheEviction = new PaymentCancellationCacheEviction(cacheManager);
+    private final Cache cache = cacheManager.getCache(CacheConfig.PAYMENT_CANCELLATION_CACHE);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void whenNoTransaction_thenEvictedRightAway() {
+        cache.put(1L, new PaymentCancellationResponse(1L, BigDecimal.ZERO));
+
+        cacheEviction.evictAfterCommit(List.of(1L));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void whenInTransaction_thenEvictedAfterCommit() {
+        cache.put(1L, new PaymentCancellationResponse(1L, BigDecimal.ZERO));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheEviction.evictAfterCommit(List.of(1L));
+        assertNotNull(cache.get(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,119 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.config.CacheConfig;
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.metrics.LatencyMetrics;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.repository.PaymentRepository;
+import ba.paymentservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {CacheConfig.class, PaymentService.class, PaymentCancellationCacheEviction.class,
+        PaymentCancellationCacheTest.TransactionConfig.class}, properties = "spring.cache.type=caffeine")
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class PaymentCancellationCacheTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @MockitoBean
+    private PaymentRepository paymentRepository;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private PaymentValidationService paymentValidationService;
+
+    @MockitoBean
+    private Validator validator;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private LatencyMetrics latencyMetrics;
+
+    @MockitoBean
+    private PaymentOutbox paymentOutbox;
+
+    @MockitoBean
+    private ReadYourWrites readYourWrites;
+
+    @MockitoBean
+    private PaymentSummaryService paymentSummaryService;
+
+    @MockitoBean
+    private ArchivedPaymentService archivedPaymentService;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    // PaymentService runs its reads in a template of its own built from the transaction manager.
+    @Configuration
+    static class TransactionConfig {
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @Test
+    public void getPaymentCancellationResponse_IsServedFromCacheOnRepeatedCalls() {
+        var response = new PaymentCancellationResponse(1L, BigDecimal.ZERO);
+        when(paymentRepository.findCancellationResponseById(1L)).thenReturn(Optional.of(response));
+
+        assertEquals(response, paymentService.getPaymentCancellationResponse(1L));
+        assertEquals(response, paymentService.getPaymentCancellationResponse(1L));
+
+        verify(paymentRepository, times(1)).findCancellationResponseById(1L);
+    }
+
+    @Test
+    public void cancelPaymentById_EvictsCachedCancellationResponse() {
+        var payment = Payment.builder()
+                .id(2L)
+                .paymentType(PaymentType.TYPE1)
+                .amount(BigDecimal.TEN)
+                .currency(Currency.EUR)
+                .createdAt(LocalDateTime.now())
+                .canceled(true)
+                .cancellationFee(BigDecimal.ONE)
+                .build();
+        when(paymentRepository.findCancellationResponseById(2L))
+                .thenReturn(Optional.of(new PaymentCancellationResponse(2L, BigDecimal.ZERO)));
+        when(paymentRepository.cancelIfCancelable(eq(2L), any(), any(), any(), any(), any())).thenReturn(Optional.of(payment));
+
+        paymentService.getPaymentCancellationResponse(2L);
+        paymentService.cancelPaymentById(2L);
+        paymentService.getPaymentCancellationResponse(2L);
+
+        verify(paymentRepository, times(2)).findCancellationResponseById(2L);
+    }
+}
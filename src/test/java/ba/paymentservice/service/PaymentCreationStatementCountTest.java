@@ -0,0 +1,123 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.PaymentValidationException;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements Hibernate prepares for a single payment creation.
+ * The user is attached as a reference, so creating a payment is exactly the payment insert,
+ * the insert of its outbox event and the upsert of its summary group, all in one transaction.
+ * Requests are validated before that transaction starts, also with an Idempotency-Key.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentCreationStatementCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentIdempotencyService paymentIdempotencyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        var user = new User();
+        user.setUsername("statements-" + UUID.randomUUID());
+        userId = userRepository.save(user).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Fetches the first block of payment and outbox ids, so the measured create is served from the pools.
+        paymentService.createAndSavePayment(createRequest(userId));
+        statistics.clear();
+    }
+
+    @Test
+    void createAndSavePayment_ShouldExecuteInsertsAndSummaryUpsertOnly() {
+        var payment = paymentService.createAndSavePayment(createRequest(userId));
+
+        assertNotNull(payment.getId());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getTransactionCount());
+    }
+
+    @Test
+    void createAndSavePayment_ShouldRejectInvalidPaymentWithoutTransaction() {
+        var request = new PaymentCreationRequest(PaymentType.TYPE2, BigDecimal.valueOf(25.00), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", null, "DEUTDEFF", userId);
+
+        assertThrows(PaymentValidationException.class, () -> paymentService.createAndSavePayment(request));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getTransactionCount());
+    }
+
+    @Test
+    void createAndSavePaymentWithIdempotencyKey_ShouldRejectInvalidPaymentWithoutTransaction() {
+        var request = new PaymentCreationRequest(PaymentType.TYPE2, BigDecimal.valueOf(25.00), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", null, "DEUTDEFF", userId);
+
+        assertThrows(PaymentValidationException.class,
+                () -> paymentIdempotencyService.createAndSavePayment(request, UUID.randomUUID().toString()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getTransactionCount());
+    }
+
+    @Test
+    void createAndSavePayment_ShouldRejectUnknownUser() {
+        var exception = assertThrows(BadRequestException.class,
+                () -> paymentService.createAndSavePayment(createRequest(Long.MAX_VALUE)));
+
+        assertEquals("User not found for ID: " + Long.MAX_VALUE, exception.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static PaymentCreationRequest createRequest(Long userId) {
+        return new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                BigDecimal.valueOf(25.00),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF",
+                userId
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.PaymentExportFilter;
+import ba.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class PaymentExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 7, 1, 0, 0);
+    private static final ArchivedMonth JANUARY = new ArchivedMonth(YearMonth.of(2025, 1), 1, 1L, 1L);
+    private static final ArchivedMonth FEBRUARY = new ArchivedMonth(YearMonth.of(2025, 2), 1, 2L, 2L);
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final ReadYourWrites readYourWrites = mock(ReadYourWrites.class);
+    private final ArchivedPaymentService archivedPaymentService = mock(ArchivedPaymentService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private PaymentExportService paymentExportService;
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(paymentRepository.streamExportByCreatedAt(FROM, TO)).thenReturn(Stream.empty());
+        paymentExportService = new PaymentExportService(paymentRepository, readYourWrites, archivedPaymentService,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    public void exportPayments_ReadsArchiveBeforeTransactionIsOpened() {
+        when(archivedPaymentService.archivedMonths(FROM, TO)).thenReturn(List.of(JANUARY));
+
+        paymentExportService.exportPayments(new PaymentExportFilter(null, FROM, TO), payment -> {});
+
+        var inOrder = inOrder(archivedPaymentService, transactionManager, paymentRepository);
+        inOrder.verify(archivedPaymentService).readPayments(eq(List.of(JANUARY)), eq(FROM), eq(TO), eq(null), any());
+        inOrder.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        inOrder.verify(paymentRepository).streamExportByCreatedAt(FROM, TO);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void whenMonthIsArchivedDuringExport_thenItIsReadFromArchive() {
+        when(archivedPaymentService.archivedMonths(FROM, TO))
+                .thenReturn(List.of(JANUARY))
+                .thenReturn(List.of(JANUARY, FEBRUARY));
+
+        paymentExportService.exportPayments(new PaymentExportFilter(null, FROM, TO), payment -> {});
+
+        verify(archivedPaymentService).readPayments(eq(List.of(JANUARY)), eq(FROM), eq(TO), eq(null), any());
+        verify(archivedPaymentService).readPayments(eq(List.of(FEBRUARY)), eq(FROM), eq(TO), eq(null), any());
+        verify(transactionManager).commit(any());
+    }
+}
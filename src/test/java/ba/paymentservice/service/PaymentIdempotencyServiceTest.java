@@ -0,0 +1,160 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.IdempotencyKeyReusedException;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.model.PaymentIdempotencyKey;
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
+import ba.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentIdempotencyServiceTest {
+
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository = mock(PaymentIdempotencyKeyRepository.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private PaymentIdempotencyService paymentIdempotencyService;
+
+    private final PaymentCreationRequest request = new PaymentCreationRequest(
+            PaymentType.TYPE2,
+            BigDecimal.valueOf(20.00),
+            Currency.USD,
+            "DE89370400440532013000",
+            "DE75512108001245126199",
+            null,
+            "DEUTDEFF",
+            1L
+    );
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        paymentIdempotencyService = new PaymentIdempotencyService(paymentService, paymentRepository,
+                idempotencyKeyRepository, new TransactionTemplate(transactionManager), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void whenKeyIsNew_thenPaymentIsCreatedAndKeyStoredWithRequestHash() {
+        var payment = payment(1L);
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(paymentService.saveValidatedPayment(request)).thenReturn(payment);
+
+        assertEquals(Optional.empty(), paymentIdempotencyService.findStoredResponse(request, "key-1"));
+        assertEquals(PaymentResponse.from(payment), paymentIdempotencyService.createAndSavePayment(request, "key-1"));
+
+        var storedKey = ArgumentCaptor.forClass(PaymentIdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(storedKey.capture());
+        assertEquals(PaymentIdempotencyService.requestHash(request), storedKey.getValue().getRequestHash());
+    }
+
+    @Test
+    public void whenKeyWasUsedRecently_thenResponseIsReturnedFromMemory() {
+        var payment = payment(1L);
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(paymentService.saveValidatedPayment(request)).thenReturn(payment);
+
+        var response = paymentIdempotencyService.createAndSavePayment(request, "key-1");
+
+        assertEquals(Optional.of(response), paymentIdempotencyService.findStoredResponse(request, "key-1"));
+        verify(idempotencyKeyRepository, never()).findById("key-1");
+        verify(paymentRepository, never()).findById(any());
+    }
+
+    @Test
+    public void whenKeyIsStored_thenOriginalPaymentIsReturnedWithoutCreatingAgain() {
+        var payment = payment(5L);
+        when(idempotencyKeyRepository.findById("key-2")).thenReturn(Optional.of(storedKey("key-2", 5L, request)));
+        when(paymentRepository.findById(5L)).thenReturn(Optional.of(payment));
+
+        assertEquals(Optional.of(PaymentResponse.from(payment)), paymentIdempotencyService.findStoredResponse(request, "key-2"));
+        assertEquals(Optional.of(PaymentResponse.from(payment)), paymentIdempotencyService.findStoredResponse(request, "key-2"));
+
+        verify(idempotencyKeyRepository, times(1)).findById("key-2");
+        verify(paymentService, never()).saveValidatedPayment(any());
+    }
+
+    @Test
+    public void whenKeyIsReusedWithOtherRequest_thenThrowIdempotencyKeyReusedException() {
+        var otherRequest = new PaymentCreationRequest(PaymentType.TYPE2, BigDecimal.valueOf(21.00), Currency.USD,
+                "DE89370400440532013000", "DE75512108001245126199", null, "DEUTDEFF", 1L);
+        when(idempotencyKeyRepository.findById("key-4")).thenReturn(Optional.of(storedKey("key-4", 4L, request)));
+        when(paymentRepository.findById(4L)).thenReturn(Optional.of(payment(4L)));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> paymentIdempotencyService.findStoredResponse(otherRequest, "key-4"));
+    }
+
+    @Test
+    public void whenRetryOnlyFormatsFieldsDifferently_thenRequestHashMatches() {
+        var reformatted = new PaymentCreationRequest(PaymentType.TYPE2, new BigDecimal("20.000"), Currency.USD,
+                "de89 3704 0044 0532 0130 00", "DE75 5121 0800 1245 1261 99", null, "DEUTDEFF", 1L);
+
+        assertEquals(PaymentIdempotencyService.requestHash(request), PaymentIdempotencyService.requestHash(reformatted));
+    }
+
+    @Test
+    public void whenConcurrentRequestStoredKeyFirst_thenItsPaymentIsReturned() {
+        var winner = payment(9L);
+        when(idempotencyKeyRepository.findById("key-3")).thenReturn(Optional.of(storedKey("key-3", 9L, request)));
+        when(paymentService.saveValidatedPayment(request)).thenReturn(payment(10L));
+        when(idempotencyKeyRepository.saveAndFlush(any(PaymentIdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(paymentRepository.findById(9L)).thenReturn(Optional.of(winner));
+
+        assertEquals(PaymentResponse.from(winner), paymentIdempotencyService.createAndSavePayment(request, "key-3"));
+    }
+
+    @Test
+    public void whenRequestIsInvalid_thenRejectedBeforeTransactionStarts() {
+        doThrow(new BadRequestException("Currency must be USD for payment TYPE2")).when(paymentService).validate(request);
+
+        assertThrows(BadRequestException.class, () -> paymentIdempotencyService.createAndSavePayment(request, "key-5"));
+
+        verify(transactionManager, never()).getTransaction(any());
+        verify(paymentService, never()).saveValidatedPayment(any());
+    }
+
+    @Test
+    public void whenKeyIsBlank_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> paymentIdempotencyService.findStoredResponse(request, " "));
+        assertThrows(BadRequestException.class, () -> paymentIdempotencyService.createAndSavePayment(request, " "));
+    }
+
+    private static PaymentIdempotencyKey storedKey(String key, Long paymentId, PaymentCreationRequest request) {
+        return new PaymentIdempotencyKey(key, paymentId, LocalDateTime.now(), PaymentIdempotencyService.requestHash(request));
+    }
+
+    private Payment payment(Long id) {
+        return Payment.builder()
+                .id(id)
+                .paymentType(PaymentType.TYPE2)
+                .amount(BigDecimal.valueOf(20.00))
+                .currency(Currency.USD)
+                .createdAt(LocalDateTime.now())
+                .cancellationFee(BigDecimal.ZERO)
+                .build();
+    }
+}
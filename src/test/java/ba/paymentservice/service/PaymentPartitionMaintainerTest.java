@@ -0,0 +1,123 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.ArchivedMonth;
+import ba.paymentservice.archive.PaymentArchive;
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
+import ba.paymentservice.repository.PaymentPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentPartitionMaintainerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    private final PaymentPartitionRepository partitionRepository = mock(PaymentPartitionRepository.class);
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository = mock(PaymentIdempotencyKeyRepository.class);
+    private final PaymentArchive paymentArchive = mock(PaymentArchive.class);
+    private final PaymentArchive.Writer writer = mock(PaymentArchive.Writer.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private PaymentPartitionMaintainer maintainer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+        when(paymentArchive.writer(any())).thenReturn(writer);
+        maintainer = new PaymentPartitionMaintainer(partitionRepository, idempotencyKeyRepository, paymentArchive,
+                new TransactionTemplate(transactionManager), CLOCK, 2, 3, true);
+    }
+
+    @Test
+    public void maintain_CreatesMissingPartitionsOfCurrentAndComingMonths() {
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6)));
+
+        maintainer.maintain();
+
+        verify(partitionRepository).createPartition(YearMonth.of(2025, 7));
+        verify(partitionRepository).createPartition(YearMonth.of(2025, 8));
+        verify(partitionRepository, never()).createPartition(YearMonth.of(2025, 6));
+        verify(partitionRepository, never()).createPartition(YearMonth.of(2025, 9));
+    }
+
+    @Test
+    public void maintain_ArchivesAndDropsPartitionsOlderThanHotMonths() throws IOException {
+        when(partitionRepository.findPartitionMonths()).thenReturn(
+                List.of(YearMonth.of(2025, 3), YearMonth.of(2025, 4), YearMonth.of(2025, 5), YearMonth.of(2025, 6)));
+        when(partitionRepository.countPartition(YearMonth.of(2025, 3))).thenReturn(2L);
+        when(writer.written()).thenReturn(2L);
+        when(writer.minId()).thenReturn(10L);
+        when(writer.maxId()).thenReturn(11L);
+
+        maintainer.maintain();
+
+        var inOrder = inOrder(partitionRepository, writer);
+        inOrder.verify(partitionRepository).streamPartition(eq(YearMonth.of(2025, 3)), any());
+        inOrder.verify(writer).commit();
+        inOrder.verify(partitionRepository).recordArchivedMonth(new ArchivedMonth(YearMonth.of(2025, 3), 2L, 10L, 11L));
+        inOrder.verify(partitionRepository).dropPartition(YearMonth.of(2025, 3));
+        verify(paymentArchive, never()).writer(YearMonth.of(2025, 4));
+        verify(partitionRepository, never()).dropPartition(YearMonth.of(2025, 4));
+        verify(idempotencyKeyRepository).deleteCreatedBefore(LocalDateTime.of(2025, 4, 1, 0, 0));
+    }
+
+    @Test
+    public void whenArchivedCountDiffers_thenPartitionIsKept() throws IOException {
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(YearMonth.of(2025, 1), YearMonth.of(2025, 6)));
+        when(partitionRepository.countPartition(YearMonth.of(2025, 1))).thenReturn(3L);
+        when(writer.written()).thenReturn(2L);
+
+        maintainer.maintain();
+
+        verify(writer, never()).commit();
+        verify(writer).close();
+        verify(partitionRepository, never()).recordArchivedMonth(any());
+        verify(partitionRepository, never()).dropPartition(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void whenAnotherInstanceHoldsTheLock_thenNothingIsChanged() {
+        when(partitionRepository.tryLockMaintenance()).thenReturn(false);
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(YearMonth.of(2025, 1)));
+
+        maintainer.maintain();
+
+        verify(partitionRepository, never()).createPartition(any());
+        verify(partitionRepository, never()).dropPartition(any());
+        verifyNoInteractions(paymentArchive);
+    }
+
+    @Test
+    public void whenArchiveIsDisabled_thenPartitionsAreOnlyCreated() {
+        maintainer = new PaymentPartitionMaintainer(partitionRepository, idempotencyKeyRepository, paymentArchive,
+                new TransactionTemplate(transactionManager), CLOCK, 2, 3, false);
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(YearMonth.of(2025, 1)));
+
+        maintainer.maintain();
+
+        verify(partitionRepository, times(3)).createPartition(any());
+        verifyNoInteractions(paymentArchive, idempotencyKeyRepository);
+    }
+
+    @Test
+    public void whenHotMonthsIsZero_thenConstructionFails() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentPartitionMaintainer(partitionRepository,
+                idempotencyKeyRepository, paymentArchive, new TransactionTemplate(transactionManager), CLOCK, 2, 0, true));
+    }
+}
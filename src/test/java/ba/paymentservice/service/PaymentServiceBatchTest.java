@@ -0,0 +1,89 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.TooManyRequestsException;
+import ba.paymentservice.metrics.LatencyMetrics;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.PaymentRepository;
+import ba.paymentservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentServiceBatchTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<Set<Long>> admittedUsers = new ArrayList<>();
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    public void setUp() {
+        paymentService = new PaymentService(paymentRepository, mock(Validator.class), mock(PaymentValidationService.class),
+                userRepository, mock(EntityManager.class), mock(LatencyMetrics.class), mock(PaymentOutbox.class),
+                mock(ReadYourWrites.class), mock(PaymentSummaryService.class), mock(PaymentCancellationCacheEviction.class),
+                mock(ArchivedPaymentService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                3, 50, 1000);
+    }
+
+    @Test
+    public void whenBatchIsTooLarge_thenNoUserIsAdmitted() {
+        var requests = Collections.nCopies(4, request(1L));
+
+        assertThrows(BadRequestException.class, () -> paymentService.createAndSavePayments(requests, admittedUsers::add));
+        assertTrue(admittedUsers.isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void onlyExistingUsersAreAdmitted() {
+        var user = mock(User.class);
+        when(user.getId()).thenReturn(1L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+
+        var response = paymentService.createAndSavePayments(List.of(request(1L), request(1L), request(999L)),
+                admittedUsers::add);
+
+        assertEquals(List.of(Set.of(1L)), admittedUsers);
+        assertEquals(2, response.created());
+        assertEquals(1, response.rejected());
+    }
+
+    @Test
+    public void whenAdmissionRejectsBatch_thenNothingIsSaved() {
+        var user = mock(User.class);
+        when(user.getId()).thenReturn(1L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        Consumer<Set<Long>> rejectAll = userIds -> {
+            throw TooManyRequestsException.retryAfterNanos("Too many payments created for a user of the batch", 1L);
+        };
+
+        assertThrows(TooManyRequestsException.class,
+                () -> paymentService.createAndSavePayments(List.of(request(1L)), rejectAll));
+        verify(paymentRepository, never()).saveAll(any());
+    }
+
+    private static PaymentCreationRequest request(Long userId) {
+        return new PaymentCreationRequest(PaymentType.TYPE1, new BigDecimal("10.00"), Currency.EUR,
+                "DE89370400440532013000", "DE75512108001245126199", null, null, userId);
+    }
+}
@@ -0,0 +1,165 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.archive.PaymentArchiveRecord;
+import ba.paymentservice.datasource.ReadYourWrites;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCancellationResponse;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.exception.PaymentAlreadyCanceledException;
+import ba.paymentservice.exception.PaymentNotFoundException;
+import ba.paymentservice.metrics.LatencyMetrics;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.repository.PaymentCancellationStatus;
+import ba.paymentservice.repository.PaymentRepository;
+import ba.paymentservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PaymentServiceCancellationTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentOutbox paymentOutbox = mock(PaymentOutbox.class);
+    private final ReadYourWrites readYourWrites = mock(ReadYourWrites.class);
+    private final PaymentSummaryService paymentSummaryService = mock(PaymentSummaryService.class);
+    private final PaymentCancellationCacheEviction cacheEviction = mock(PaymentCancellationCacheEviction.class);
+    private final ArchivedPaymentService archivedPaymentService = mock(ArchivedPaymentService.class);
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    public void setUp() {
+        paymentService = new PaymentService(paymentRepository, mock(Validator.class), mock(PaymentValidationService.class),
+                mock(UserRepository.class), mock(EntityManager.class), mock(LatencyMetrics.class), paymentOutbox,
+                readYourWrites, paymentSummaryService, cacheEviction, archivedPaymentService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000, 50, 1000);
+    }
+
+    @Test
+    public void whenConditionalUpdateMatches_thenCanceledPaymentIsReturned() {
+        var payment = Payment.builder()
+                .id(1L)
+                .paymentType(PaymentType.TYPE1)
+                .amount(BigDecimal.TEN)
+                .currency(Currency.EUR)
+                .createdAt(LocalDateTime.now())
+                .canceled(true)
+                .cancellationFee(BigDecimal.valueOf(0.50))
+                .build();
+        var today = LocalDate.now().atStartOfDay();
+        when(paymentRepository.cancelIfCancelable(1L, today, today.plusDays(1),
+                new BigDecimal("0.05"), new BigDecimal("0.10"), new BigDecimal("0.15")))
+                .thenReturn(Optional.of(payment));
+
+        assertSame(payment, paymentService.cancelPaymentById(1L));
+        verify(paymentRepository, never()).findCancellationStatusById(any());
+        verify(paymentOutbox).paymentCanceled(payment);
+        verify(readYourWrites).paymentWritten(1L);
+        verify(paymentSummaryService).paymentsCanceled(List.of(1L), today, today.plusDays(1));
+        verify(cacheEviction).evictAfterCommit(List.of(1L));
+    }
+
+    @Test
+    public void whenPaymentDoesNotExist_thenThrowPaymentNotFoundException() {
+        when(paymentRepository.cancelIfCancelable(eq(2L), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(paymentRepository.findCancellationStatusById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.cancelPaymentById(2L));
+        verifyNoInteractions(paymentOutbox);
+    }
+
+    @Test
+    public void whenPaymentIsAlreadyCanceled_thenThrowPaymentAlreadyCanceledException() {
+        when(paymentRepository.cancelIfCancelable(eq(3L), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(paymentRepository.findCancellationStatusById(3L)).thenReturn(Optional.of(status(true, LocalDateTime.now())));
+
+        assertThrows(PaymentAlreadyCanceledException.class, () -> paymentService.cancelPaymentById(3L));
+    }
+
+    @Test
+    public void whenPaymentWasCreatedOnAnotherDay_thenThrowBadRequestException() {
+        when(paymentRepository.cancelIfCancelable(eq(4L), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(paymentRepository.findCancellationStatusById(4L)).thenReturn(Optional.of(status(false, LocalDateTime.now().minusDays(1))));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> paymentService.cancelPaymentById(4L));
+        assertEquals("Payment can only be canceled on the same day it was created", exception.getMessage());
+    }
+
+    @Test
+    public void whenPaymentIsInDatabase_thenArchiveIsNotRead() {
+        var response = new PaymentCancellationResponse(5L, BigDecimal.ZERO);
+        when(paymentRepository.findCancellationResponseById(5L)).thenReturn(Optional.of(response));
+
+        assertEquals(response, paymentService.getPaymentCancellationResponse(5L));
+        verify(readYourWrites).readPaymentFromPrimaryIfWritten(5L);
+        verifyNoInteractions(archivedPaymentService);
+    }
+
+    @Test
+    public void whenPaymentIsArchived_thenItIsReadFromArchive() {
+        when(paymentRepository.findCancellationResponseById(6L)).thenReturn(Optional.empty());
+        when(archivedPaymentService.findPayment(6L)).thenReturn(Optional.of(new PaymentArchiveRecord(6L, 1L,
+                PaymentType.TYPE2, BigDecimal.TEN, Currency.EUR, "DE89370400440532013000", "DE75512108001245126199",
+                null, null, LocalDateTime.of(2025, 1, 3, 9, 0), true, new BigDecimal("0.90"))));
+
+        assertEquals(new PaymentCancellationResponse(6L, new BigDecimal("0.90")),
+                paymentService.getPaymentCancellationResponse(6L));
+    }
+
+    @Test
+    public void whenPaymentIsNeitherInDatabaseNorArchived_thenThrowPaymentNotFoundException() {
+        when(paymentRepository.findCancellationResponseById(7L)).thenReturn(Optional.empty());
+        when(archivedPaymentService.findPayment(7L)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getPaymentCancellationResponse(7L));
+    }
+
+    @Test
+    public void whenUserHasOnlyArchivedPayments_thenListingDoesNotReadArchive() {
+        when(paymentRepository.findByUserId(8L)).thenReturn(List.of());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getPaymentIdsByUser(8L));
+        verifyNoInteractions(archivedPaymentService);
+    }
+
+    private static PaymentCancellationStatus status(boolean canceled, LocalDateTime createdAt) {
+        return new PaymentCancellationStatus() {
+            @Override
+            public Long getId() {
+                return null;
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return canceled;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    @Test
+    public void cancellationFeeCoefficient_ShouldBeExactInHundredths() {
+        assertEquals(new BigDecimal("0.05"), PaymentService.cancellationFeeCoefficient(PaymentType.TYPE1));
+        assertEquals(new BigDecimal("0.10"), PaymentService.cancellationFeeCoefficient(PaymentType.TYPE2));
+        assertEquals(new BigDecimal("0.15"), PaymentService.cancellationFeeCoefficient(PaymentType.TYPE3));
+    }
+}
@@ -0,0 +1,105 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.BulkCancellationRequest;
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentSummaryGroup;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.model.User;
+import ba.paymentservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the incrementally maintained summary matches the one rebuilt from the payment table.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentSummaryMaintenanceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BulkPaymentCancellationService bulkPaymentCancellationService;
+
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createAndCancel_UpdateSummaryIncrementally() {
+        var userId = createUser();
+        var first = paymentService.createAndSavePayment(createRequest(userId, "25.00"));
+        paymentService.createAndSavePayments(List.of(createRequest(userId, "10.50"), createRequest(userId, "4.50")), userIds -> {});
+        var canceled = paymentService.cancelPaymentById(first.getId());
+
+        var group = singleGroup(userId);
+        assertEquals(3, group.paymentCount());
+        assertEquals(new BigDecimal("40.00"), group.totalAmount());
+        assertEquals(1, group.canceledCount());
+        assertEquals(canceled.getCancellationFee(), group.cancellationFees());
+
+        paymentSummaryService.rebuild();
+        assertEquals(group, singleGroup(userId));
+    }
+
+    @Test
+    void bulkCancel_UpdatesSummary() {
+        var userId = createUser();
+        paymentService.createAndSavePayment(createRequest(userId, "25.00"));
+        paymentService.createAndSavePayment(createRequest(userId, "15.00"));
+        var response = bulkPaymentCancellationService.cancelPayments(new BulkCancellationRequest(null, userId));
+
+        var group = singleGroup(userId);
+        assertEquals(2, group.canceledCount());
+        assertEquals(response.canceled().stream().map(c -> c.cancellationFee()).reduce(BigDecimal.ZERO, BigDecimal::add),
+                group.cancellationFees());
+
+        paymentSummaryService.rebuild();
+        assertEquals(group, singleGroup(userId));
+    }
+
+    private PaymentSummaryGroup singleGroup(Long userId) {
+        var groups = paymentSummaryService.getSummary(userId, LocalDate.now(), LocalDate.now()).groups();
+        assertEquals(1, groups.size());
+        return groups.get(0);
+    }
+
+    private Long createUser() {
+        var user = new User();
+        user.setUsername("summary-" + UUID.randomUUID());
+        return userRepository.save(user).getId();
+    }
+
+    private static PaymentCreationRequest createRequest(Long userId, String amount) {
+        return new PaymentCreationRequest(
+                PaymentType.TYPE2,
+                new BigDecimal(amount),
+                Currency.USD,
+                "DE89370400440532013000",
+                "DE75512108001245126199",
+                null,
+                "DEUTDEFF",
+                userId
+        );
+    }
+}
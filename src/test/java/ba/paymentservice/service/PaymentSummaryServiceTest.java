@@ -0,0 +1,82 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentSummaryGroup;
+import ba.paymentservice.dto.PaymentSummaryTotal;
+import ba.paymentservice.dto.PaymentType;
+import ba.paymentservice.exception.BadRequestException;
+import ba.paymentservice.model.Payment;
+import ba.paymentservice.repository.PaymentSummaryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentSummaryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private final PaymentSummaryRepository paymentSummaryRepository = mock(PaymentSummaryRepository.class);
+    private final PaymentSummaryService service = new PaymentSummaryService(paymentSummaryRepository);
+
+    @Test
+    public void getSummary_AddsUpTotalsPerCurrency() {
+        when(paymentSummaryRepository.findGroupsByUserId(1L, DAY, DAY)).thenReturn(List.of(
+                group(Currency.EUR, PaymentType.TYPE1, 2, "200.00", 1, "0.65"),
+                group(Currency.USD, PaymentType.TYPE2, 1, "25.00", 0, "0.00"),
+                group(Currency.EUR, PaymentType.TYPE3, 3, "30.50", 1, "1.95")));
+
+        var summary = service.getSummary(1L, DAY, DAY);
+
+        assertEquals(3, summary.groups().size());
+        assertEquals(List.of(
+                new PaymentSummaryTotal(Currency.EUR, 5, new BigDecimal("230.50"), 2, new BigDecimal("2.60")),
+                new PaymentSummaryTotal(Currency.USD, 1, new BigDecimal("25.00"), 0, new BigDecimal("0.00"))),
+                summary.totals());
+    }
+
+    @Test
+    public void getSummary_WithOnlyUser_QueriesWholeDateRange() {
+        service.getSummary(1L, null, null);
+
+        verify(paymentSummaryRepository).findGroupsByUserId(1L, LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31));
+        verify(paymentSummaryRepository, never()).findGroups(any(), any());
+    }
+
+    @Test
+    public void whenNoFilterIsGiven_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> service.getSummary(null, null, null));
+    }
+
+    @Test
+    public void whenFromIsAfterTo_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> service.getSummary(null, DAY, DAY.minusDays(1)));
+    }
+
+    @Test
+    public void whenNoPaymentsChanged_thenSummaryIsNotUpdated() {
+        service.paymentsCreated(List.of());
+        service.paymentsCanceled(List.of(), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+
+        verifyNoInteractions(paymentSummaryRepository);
+    }
+
+    @Test
+    public void paymentsCreated_BoundsCreatedAtByTheirDays() {
+        service.paymentsCreated(List.of(
+                Payment.builder().id(1L).createdAt(DAY.atTime(23, 59, 59)).build(),
+                Payment.builder().id(2L).createdAt(DAY.plusDays(1).atTime(0, 0, 1)).build()));
+
+        verify(paymentSummaryRepository).addCreated(List.of(1L, 2L), DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+    }
+
+    private static PaymentSummaryGroup group(Currency currency, PaymentType type, long count, String amount,
+                                             long canceled, String fees) {
+        return new PaymentSummaryGroup(1L, DAY, currency, type, count, new BigDecimal(amount), canceled, new BigDecimal(fees));
+    }
+}
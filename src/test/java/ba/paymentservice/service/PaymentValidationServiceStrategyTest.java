@@ -4,10 +4,7 @@ import ba.paymentservice.dto.Currency;
 import ba.paymentservice.dto.PaymentCreationRequest;
 import ba.paymentservice.dto.PaymentType;
 import ba.paymentservice.exception.BadRequestException;
-import ba.paymentservice.validator.PaymentValidator;
-import ba.paymentservice.validator.Type1PaymentValidator;
-import ba.paymentservice.validator.Type2PaymentValidator;
-import ba.paymentservice.validator.Type3PaymentValidator;
+import ba.paymentservice.exception.PaymentValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -22,12 +19,7 @@ public class PaymentValidationServiceStrategyTest {
 
     @BeforeEach
     public void setUp() {
-        List<PaymentValidator> validators = List.of(
-                new Type1PaymentValidator(),
-                new Type2PaymentValidator(),
-                new Type3PaymentValidator()
-        );
-        paymentValidationService = new PaymentValidationService(validators);
+        paymentValidationService = new PaymentValidationService();
     }
 
     // ----- TYPE1 Tests -----
@@ -162,4 +154,24 @@ public class PaymentValidationServiceStrategyTest {
                 () -> paymentValidationService.validate(request));
         assertEquals("Creditor bank BIC required for TYPE3 payment", exception.getMessage());
     }
+
+    @Test
+    public void testAllViolationsReportedTogether() {
+        PaymentCreationRequest request = new PaymentCreationRequest(
+                PaymentType.TYPE1,
+                BigDecimal.valueOf(100.00),
+                Currency.USD, // Invalid: should be EUR for TYPE1
+                "DE1234567890",
+                "DE0987654321",
+                "", // Missing details
+                "BIC1234567",
+                1L
+        );
+        PaymentValidationException exception = assertThrows(PaymentValidationException.class,
+                () -> paymentValidationService.validate(request));
+        assertEquals(List.of("Currency must be EUR for payment TYPE1", "Details are required for payment type TYPE1"),
+                exception.getViolations());
+        assertEquals("Currency must be EUR for payment TYPE1; Details are required for payment type TYPE1",
+                exception.getMessage());
+    }
 }
@@ -0,0 +1,23 @@
+package ba.paymentservice.service;
+
+import ba.paymentservice.repository.PaymentIdempotencyKeyRepository;
+import ba.paymentservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+public class UserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PaymentIdempotencyKeyRepository idempotencyKeyRepository = mock(PaymentIdempotencyKeyRepository.class);
+    private final UserService userService = new UserService(userRepository, idempotencyKeyRepository);
+
+    @Test
+    public void deleteUser_DeletesIdempotencyKeysOfPaymentsBeforeUser() {
+        userService.deleteUser(7L);
+
+        var inOrder = inOrder(idempotencyKeyRepository, userRepository);
+        inOrder.verify(idempotencyKeyRepository).deleteByUserId(7L);
+        inOrder.verify(userRepository).deleteById(7L);
+    }
+}
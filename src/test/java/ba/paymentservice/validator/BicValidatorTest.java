@@ -0,0 +1,31 @@
+package ba.paymentservice.validator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BicValidatorTest {
+
+    @Test
+    public void whenBicHasEightOrElevenCharacters_thenValid() {
+        assertTrue(BicValidator.isValidBic("DEUTDEFF"));
+        assertTrue(BicValidator.isValidBic("DEUTDEFF500"));
+        assertTrue(BicValidator.isValidBic("GENODEF1S04"));
+    }
+
+    @Test
+    public void whenBicFormatBroken_thenInvalid() {
+        assertFalse(BicValidator.isValidBic("BANKBIC"));
+        assertFalse(BicValidator.isValidBic("BIC1234567"));
+        assertFalse(BicValidator.isValidBic("DEU1DEFF"));
+        assertFalse(BicValidator.isValidBic("DEUTD1FF"));
+        assertFalse(BicValidator.isValidBic("deutdeff"));
+    }
+
+    @Test
+    public void whenBicAbsent_thenConstraintIsSatisfied() {
+        var validator = new BicValidator();
+        assertTrue(validator.isValid(null, null));
+        assertTrue(validator.isValid("", null));
+    }
+}
@@ -0,0 +1,107 @@
+package ba.paymentservice.validator;
+
+import ba.paymentservice.dto.Currency;
+import ba.paymentservice.dto.PaymentCreationRequest;
+import ba.paymentservice.dto.PaymentType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledPaymentRulesTest {
+
+    private final CompiledPaymentRules rules = CompiledPaymentRules.compile(PaymentRules.DEFAULT);
+
+    private PaymentCreationRequest createPayment(PaymentType type, Currency currency, String creditorIban,
+                                                 String details, String creditorBankBic) {
+        return new PaymentCreationRequest(
+                type,
+                BigDecimal.valueOf(100.00),
+                currency,
+                "DE1234567890",
+                creditorIban,
+                details,
+                creditorBankBic,
+                1L
+        );
+    }
+
+    // ----- TYPE1 -----
+    @Test
+    public void whenType1Valid_thenNoViolations() {
+        assertEquals(List.of(), rules.check(createPayment(PaymentType.TYPE1, Currency.EUR, "DE0987654321", "Some details", null)));
+    }
+
+    @Test
+    public void whenType1CurrencyIsNotEUR_thenCurrencyViolation() {
+        assertEquals(List.of("Currency must be EUR for payment TYPE1"),
+                rules.check(createPayment(PaymentType.TYPE1, Currency.USD, "DE0987654321", "Some details", null)));
+    }
+
+    @Test
+    public void whenType1DetailsAreBlank_thenDetailsViolation() {
+        assertEquals(List.of("Details are required for payment type TYPE1"),
+                rules.check(createPayment(PaymentType.TYPE1, Currency.EUR, "DE0987654321", "  ", null)));
+    }
+
+    @Test
+    public void whenType1CurrencyAndDetailsInvalid_thenBothViolationsCollected() {
+        assertEquals(List.of("Currency must be EUR for payment TYPE1", "Details are required for payment type TYPE1"),
+                rules.check(createPayment(PaymentType.TYPE1, null, "DE0987654321", null, null)));
+    }
+
+    // ----- TYPE2 -----
+    @Test
+    public void whenType2CurrencyIsUSD_thenNoViolations() {
+        assertEquals(List.of(), rules.check(createPayment(PaymentType.TYPE2, Currency.USD, null, null, null)));
+    }
+
+    @Test
+    public void whenType2CurrencyIsNotUSD_thenCurrencyViolation() {
+        assertEquals(List.of("Currency must be USD for payment TYPE2"),
+                rules.check(createPayment(PaymentType.TYPE2, Currency.EUR, null, null, null)));
+    }
+
+    // ----- TYPE3 -----
+    @Test
+    public void whenType3CreditorIbanAndBankBicProvided_thenNoViolations() {
+        assertEquals(List.of(), rules.check(createPayment(PaymentType.TYPE3, Currency.USD, "DE1234567890", "", "BANKBIC")));
+    }
+
+    @Test
+    public void whenType3CurrencyIsMissing_thenNoViolations() {
+        assertEquals(List.of(), rules.check(createPayment(PaymentType.TYPE3, null, "DE1234567890", "", "BANKBIC")));
+    }
+
+    @Test
+    public void whenType3CreditorBankBicIsMissing_thenBicViolation() {
+        assertEquals(List.of("Creditor bank BIC required for TYPE3 payment"),
+                rules.check(createPayment(PaymentType.TYPE3, Currency.USD, "DE1234567890", "", "")));
+    }
+
+    @Test
+    public void whenType3CreditorIbanAndBankBicMissing_thenBothViolationsCollected() {
+        assertEquals(List.of("Creditor IBAN is required for TYPE3 payment", "Creditor bank BIC required for TYPE3 payment"),
+                rules.check(createPayment(PaymentType.TYPE3, Currency.USD, null, "", null)));
+    }
+
+    // ----- Rule set -----
+    @Test
+    public void whenPaymentTypeHasNoRules_thenInvalidPaymentType() {
+        var type1Only = CompiledPaymentRules.compile(List.of(PaymentRule.forType(PaymentType.TYPE1)));
+
+        assertEquals(List.of("Invalid payment type"),
+                type1Only.check(createPayment(PaymentType.TYPE2, Currency.USD, null, null, null)));
+        assertEquals(List.of("Invalid payment type"),
+                type1Only.check(createPayment(null, Currency.USD, null, null, null)));
+    }
+
+    @Test
+    public void whenPaymentTypeDeclaredTwice_thenCompileFails() {
+        assertThrows(IllegalStateException.class, () -> CompiledPaymentRules.compile(List.of(
+                PaymentRule.forType(PaymentType.TYPE1),
+                PaymentRule.forType(PaymentType.TYPE1))));
+    }
+}
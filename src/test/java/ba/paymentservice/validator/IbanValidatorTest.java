@@ -0,0 +1,55 @@
+package ba.paymentservice.validator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IbanValidatorTest {
+
+    @Test
+    public void whenIbanHasValidChecksum_thenValid() {
+        assertTrue(IbanValidator.isValidIban("DE89370400440532013000"));
+        assertTrue(IbanValidator.isValidIban("GB82WEST12345698765432"));
+        assertTrue(IbanValidator.isValidIban("FR1420041010050500013M02606"));
+        assertTrue(IbanValidator.isValidIban("NO9386011117947"));
+    }
+
+    @Test
+    public void whenIbanPrintedWithSpacesAndLowerCase_thenValid() {
+        assertTrue(IbanValidator.isValidIban("DE89 3704 0044 0532 0130 00"));
+        assertTrue(IbanValidator.isValidIban("gb82 west 1234 5698 7654 32"));
+    }
+
+    @Test
+    public void whenChecksumWrong_thenInvalid() {
+        assertFalse(IbanValidator.isValidIban("DE89370400440532013001"));
+        assertFalse(IbanValidator.isValidIban("DE12345678901234567890"));
+    }
+
+    @Test
+    public void whenLengthDoesNotMatchCountry_thenInvalid() {
+        assertFalse(IbanValidator.isValidIban("DE8937040044053201300"));
+        assertFalse(IbanValidator.isValidIban("DE12345678901234"));
+    }
+
+    @Test
+    public void whenCountryUnknownOrFormatBroken_thenInvalid() {
+        assertFalse(IbanValidator.isValidIban("XX89370400440532013000"));
+        assertFalse(IbanValidator.isValidIban("D189370400440532013000"));
+        assertFalse(IbanValidator.isValidIban("DEX9370400440532013000"));
+        assertFalse(IbanValidator.isValidIban("DE89-370400440532013000"));
+        assertFalse(IbanValidator.isValidIban(""));
+    }
+
+    @Test
+    public void whenNormalized_thenSpacesRemovedAndUpperCased() {
+        assertEquals("GB82WEST12345698765432", IbanValidator.normalize("gb82 west 1234 5698 7654 32"));
+        assertNull(IbanValidator.normalize(null));
+    }
+
+    @Test
+    public void whenAlreadyNormalized_thenSameInstanceReturned() {
+        String iban = "DE89370400440532013000";
+        assertSame(iban, IbanValidator.normalize(iban));
+    }
+}